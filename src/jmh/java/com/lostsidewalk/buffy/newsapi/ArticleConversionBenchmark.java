@@ -0,0 +1,38 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import com.kwabenaberko.newsapilib.models.response.ArticleResponse;
+import com.lostsidewalk.buffy.post.StagingPost;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Article page to StagingPost conversion, end to end.
+ */
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ArticleConversionBenchmark {
+
+    @Param({"COMPATIBLE", "FAST"})
+    public NewsApiHashMode hashMode;
+
+    @Param({"2000", "20000"})
+    public int contentLength;
+
+    private ArticleResponse page;
+
+    private NewsApiPostHasher postHasher;
+
+    @Setup
+    public void setup() {
+        page = NewsApiFixtures.articlePage(1L, contentLength);
+        postHasher = new NewsApiPostHasher(hashMode);
+    }
+
+    @Benchmark
+    public Set<StagingPost> importArticleResponse() {
+        return NewsApiImporter.importArticleResponse(postHasher, 1L, 2L, "test query", page, "me", new Date(), null);
+    }
+}
@@ -0,0 +1,65 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import com.lostsidewalk.buffy.Importer.ImportResult;
+import com.lostsidewalk.buffy.query.QueryDefinition;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wall-clock time of a full import over the synthetic backend: the fixed platform thread pool vs. virtual threads.
+ * Each query is a distinct request that waits out the simulated upstream latency, so the import is bound by how
+ * many requests the executor keeps in flight.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ExecutionModeBenchmark {
+
+    @Param({"FIXED", "VIRTUAL"})
+    public NewsApiExecutionMode executionMode;
+
+    @Param({"200"})
+    public int queryCt;
+
+    @Param({"50"})
+    public long latencyMillis;
+
+    private NewsApiImporter importer;
+
+    private List<QueryDefinition> queryDefinitions;
+
+    @Setup
+    public void setup() {
+        NewsApiImporterConfigProps configProps = new NewsApiImporterConfigProps();
+        configProps.setExecutionMode(executionMode);
+        configProps.setImportTimeoutSecs(600);
+        configProps.setSyntheticArticlesPerResponse(20);
+        NewsApiMockDataGenerator generator = new NewsApiMockDataGenerator();
+        generator.configProps = configProps;
+        importer = new NewsApiImporter();
+        importer.configProps = configProps;
+        importer.errorAggregator = new ConcurrentLinkedQueue<>();
+        importer.newsApiMockDataGenerator = generator;
+        importer.newsApiBackend = new SyntheticNewsApiBackend(generator, latencyMillis, 0.0);
+        importer.newsApiMetrics = new NewsApiMetrics(null);
+        importer.postConstruct();
+        queryDefinitions = new ArrayList<>(queryCt);
+        for (long id = 1L; id <= queryCt; id++) {
+            queryDefinitions.add(NewsApiFixtures.queryDefinition(id, NewsApiImporter.NEWSAPIV2_EVERYTHING, "test query " + id));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        importer.preDestroy();
+    }
+
+    @Benchmark
+    public ImportResult doImport() {
+        return importer.doImport(queryDefinitions, null);
+    }
+}
@@ -0,0 +1,85 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.kwabenaberko.newsapilib.models.Article;
+import com.kwabenaberko.newsapilib.models.Source;
+import com.kwabenaberko.newsapilib.models.response.ArticleResponse;
+import com.lostsidewalk.buffy.query.QueryDefinition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Realistic ArticleResponse pages for benchmarks: full-size pages, long content, and a mix of scripts.
+ */
+final class NewsApiFixtures {
+
+    static final int PAGE_SIZE = 100;
+
+    private static final String[] SNIPPETS = {
+            "The central bank held rates steady on Tuesday, citing persistent inflation. ",
+            "Die Bundesregierung hat am Mittwoch ein neues Maßnahmenpaket für Verbraucher beschlossen. ",
+            "Le gouvernement a présenté jeudi un projet de loi très attendu sur l'énergie. ",
+            "中国国家统计局周一公布的数据显示，工业生产增速有所放缓。 ",
+            "ממשלת ישראל אישרה הלילה את התקציב לשנה הבאה. ",
+            "Москва объявила о новых мерах поддержки малого бизнеса. ",
+            "Markets rallied after the report 📈 — analysts called it \"a <surprise> & a relief\". "
+    };
+
+    private static final Gson GSON = new Gson();
+
+    private NewsApiFixtures() {
+    }
+
+    // QueryDefinition is a persistence bean; populate it the way it's read back rather than through its constructors
+    static QueryDefinition queryDefinition(long id, String queryType, String queryText) {
+        JsonObject obj = new JsonObject();
+        obj.addProperty("id", id);
+        obj.addProperty("feedId", id);
+        obj.addProperty("username", "me");
+        obj.addProperty("queryType", queryType);
+        obj.addProperty("queryText", queryText);
+        return GSON.fromJson(obj, QueryDefinition.class);
+    }
+
+    static ArticleResponse articlePage(long seed, int contentLength) {
+        Random random = new Random(seed);
+        List<Article> articles = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            articles.add(article(random, i, contentLength));
+        }
+        ArticleResponse response = new ArticleResponse();
+        response.setStatus("ok");
+        response.setTotalResults(PAGE_SIZE * 40);
+        response.setArticles(articles);
+        return response;
+    }
+
+    static Article article(Random random, int i, int contentLength) {
+        Source source = new Source();
+        source.setId("source-" + (i % 17));
+        source.setName("Source " + (i % 17));
+        source.setCategory("general");
+        Article article = new Article();
+        article.setSource(source);
+        article.setAuthor("Author " + i);
+        article.setTitle(text(random, 90));
+        article.setDescription(text(random, 300));
+        article.setUrl("https://news.example.com/" + random.nextInt(1_000_000) + "/story-" + i);
+        article.setUrlToImage("https://img.example.com/" + random.nextInt(1_000_000) + ".jpg");
+        article.setPublishedAt(String.format("2023-%02d-%02dT%02d:%02d:%02dZ",
+                1 + random.nextInt(12), 1 + random.nextInt(28), random.nextInt(24), random.nextInt(60), random.nextInt(60)));
+        article.setContent(text(random, contentLength));
+        return article;
+    }
+
+    static String text(Random random, int length) {
+        StringBuilder sb = new StringBuilder(length + 128);
+        while (sb.length() < length) {
+            sb.append(SNIPPETS[random.nextInt(SNIPPETS.length)]);
+        }
+        return sb.substring(0, length);
+    }
+}
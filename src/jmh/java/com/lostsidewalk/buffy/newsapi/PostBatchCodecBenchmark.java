@@ -0,0 +1,129 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.lostsidewalk.buffy.post.ContentObject;
+import com.lostsidewalk.buffy.post.StagingPost;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Staging post batch encoding and decoding: the binary batch codec vs. Java serialization and Gson.  The batch is
+ * importer output (with the default post hash mode), and setup checks that every field survives the binary round
+ * trip.
+ */
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PostBatchCodecBenchmark {
+
+    private static final Type STAGING_POST_LIST_TYPE = new TypeToken<List<StagingPost>>() {}.getType();
+
+    @Param({"500", "5000"})
+    public int contentLength;
+
+    private final Gson gson = new Gson();
+
+    private List<StagingPost> batch;
+
+    private ByteBuffer binary;
+
+    private byte[] serialized;
+
+    private byte[] json;
+
+    @Setup
+    public void setup() throws IOException {
+        // a page for each of a few queries of the same feed, as the importer hands them off
+        batch = new ArrayList<>();
+        NewsApiPostHasher postHasher = new NewsApiPostHasher(NewsApiHashMode.COMPATIBLE);
+        Date importTimestamp = new Date();
+        for (long queryId = 1L; queryId <= 4L; queryId++) {
+            batch.addAll(NewsApiImporter.importArticleResponse(postHasher, 1L, queryId, "test query " + queryId,
+                    NewsApiFixtures.articlePage(queryId, contentLength), "me", importTimestamp, null));
+        }
+        binary = encodeBinary();
+        serialized = encodeJava();
+        json = encodeGson();
+        checkRoundTrip(batch, NewsApiPostBatchCodec.decode(binary.duplicate()));
+    }
+
+    private static void checkRoundTrip(List<StagingPost> expected, List<StagingPost> decoded) {
+        if (decoded.size() != expected.size()) {
+            throw new IllegalStateException("Binary batch round trip returned " + decoded.size() + " of " + expected.size() + " posts");
+        }
+        for (int i = 0; i < expected.size(); i++) {
+            StagingPost e = expected.get(i);
+            StagingPost d = decoded.get(i);
+            List<Object> expectedFields = fields(e);
+            List<Object> decodedFields = fields(d);
+            for (int f = 0; f < expectedFields.size(); f++) {
+                if (!Objects.equals(expectedFields.get(f), decodedFields.get(f))) {
+                    throw new IllegalStateException("Binary batch round trip changed field " + f + " of postHash=" + e.getPostHash()
+                            + ": expected " + expectedFields.get(f) + ", was " + decodedFields.get(f));
+                }
+            }
+        }
+    }
+
+    // the fields the importer sets, in comparable form
+    private static List<Object> fields(StagingPost s) {
+        return Arrays.asList(s.getImporterId(), s.getFeedId(), s.getImporterDesc(), s.getQueryId(),
+                content(s.getPostTitle()), content(s.getPostDesc()),
+                s.getPostContents() == null ? null : s.getPostContents().stream().map(PostBatchCodecBenchmark::content).toList(),
+                s.getPostUrl(), s.getPostImgUrl(), s.getImportTimestamp(), s.getPostHash(), s.getUsername(),
+                s.getAuthors() == null ? null : s.getAuthors().stream().map(a -> a == null ? null : a.getName()).toList(),
+                s.getPostCategories(), s.getPublishTimestamp());
+    }
+
+    private static List<String> content(ContentObject c) {
+        return c == null ? null : Arrays.asList(c.getType(), c.getValue());
+    }
+
+    @Benchmark
+    public ByteBuffer encodeBinary() {
+        return NewsApiPostBatchCodec.encode(batch);
+    }
+
+    @Benchmark
+    public List<StagingPost> decodeBinary() throws IOException {
+        return NewsApiPostBatchCodec.decode(binary.duplicate());
+    }
+
+    @Benchmark
+    public byte[] encodeJava() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(batch);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public List<StagingPost> decodeJava() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+            return (List<StagingPost>) in.readObject();
+        }
+    }
+
+    @Benchmark
+    public byte[] encodeGson() {
+        return gson.toJson(batch, STAGING_POST_LIST_TYPE).getBytes(UTF_8);
+    }
+
+    @Benchmark
+    public List<StagingPost> decodeGson() {
+        return gson.fromJson(new String(json, UTF_8), STAGING_POST_LIST_TYPE);
+    }
+}
@@ -0,0 +1,64 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import com.google.gson.Gson;
+import com.kwabenaberko.newsapilib.models.Article;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.commons.lang3.SerializationUtils.serialize;
+
+/**
+ * Post hashing, per 100-article page.  legacy is the pre-streaming implementation (GSON tree, String.format, Java
+ * serialization, MD5), kept here as the baseline for the COMPATIBLE and FAST modes.
+ */
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PostHashBenchmark {
+
+    @Param({"2000", "20000"})
+    public int contentLength;
+
+    private List<Article> articles;
+
+    private NewsApiPostHasher compatibleHasher;
+
+    private NewsApiPostHasher fastHasher;
+
+    private static final Gson GSON = new Gson();
+
+    @Setup
+    public void setup() {
+        articles = NewsApiFixtures.articlePage(1L, contentLength).getArticles();
+        compatibleHasher = new NewsApiPostHasher(NewsApiHashMode.COMPATIBLE);
+        fastHasher = new NewsApiPostHasher(NewsApiHashMode.FAST);
+    }
+
+    @Benchmark
+    public void legacy(Blackhole bh) throws NoSuchAlgorithmException {
+        MessageDigest md = MessageDigest.getInstance("MD5");
+        for (Article a : articles) {
+            String objectSrc = GSON.toJsonTree(a).toString();
+            bh.consume(HexFormat.of().withUpperCase().formatHex(md.digest(serialize(String.format("%s:%s", 1L, objectSrc)))));
+        }
+    }
+
+    @Benchmark
+    public void compatible(Blackhole bh) {
+        for (Article a : articles) {
+            bh.consume(compatibleHasher.computeHash(1L, a));
+        }
+    }
+
+    @Benchmark
+    public void fast(Blackhole bh) {
+        for (Article a : articles) {
+            bh.consume(fastHasher.computeHash(1L, a));
+        }
+    }
+}
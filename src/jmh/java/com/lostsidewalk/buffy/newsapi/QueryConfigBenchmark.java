@@ -0,0 +1,30 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.lostsidewalk.buffy.newsapi.NewsApiImporter.NEWSAPIV2_EVERYTHING;
+import static com.lostsidewalk.buffy.newsapi.NewsApiImporter.NEWSAPIV2_HEADLINES;
+
+/**
+ * Query configuration parsing into a normalized request, as done for every query in every import.
+ */
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class QueryConfigBenchmark {
+
+    private static final String SOURCES_CONFIG = "{\"sources\":[\"BBC_NEWS\",\"ASSOCIATED_PRESS\",\"CNN\",\"AXIOS\"],\"language\":\"EN\"}";
+
+    private static final String HEADLINES_CONFIG = "{\"country\":\"US\",\"category\":\"TECHNOLOGY\",\"language\":\"EN\"}";
+
+    @Benchmark
+    public NewsApiRequest everythingWithSources() {
+        return NewsApiRequest.from(NEWSAPIV2_EVERYTHING, "climate  policy", SOURCES_CONFIG);
+    }
+
+    @Benchmark
+    public NewsApiRequest headlinesWithCountry() {
+        return NewsApiRequest.from(NEWSAPIV2_HEADLINES, null, HEADLINES_CONFIG);
+    }
+}
@@ -0,0 +1,82 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HexFormat;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Seen index lookup and insert throughput, at a fill level of about half the table's usable capacity.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SeenIndexBenchmark {
+
+    private static final int CAPACITY = 1 << 22;
+
+    private static final int PRELOADED = CAPACITY / 3;
+
+    private static final int KEY_CT = 1 << 16;
+
+    private Path file;
+
+    private NewsApiSeenIndex seenIndex;
+
+    private String[] presentKeys;
+
+    private String[] absentKeys;
+
+    private int i;
+
+    @Setup
+    public void setup() throws IOException {
+        file = Files.createTempFile("seen-index-benchmark", ".idx");
+        Files.delete(file);
+        seenIndex = new NewsApiSeenIndex(file, CAPACITY, Integer.MAX_VALUE);
+        Random random = new Random(1L);
+        presentKeys = new String[KEY_CT];
+        for (int n = 0; n < PRELOADED; n++) {
+            String key = randomKey(random);
+            seenIndex.add(key);
+            if (n < KEY_CT) {
+                presentKeys[n] = key;
+            }
+        }
+        absentKeys = new String[KEY_CT];
+        for (int n = 0; n < KEY_CT; n++) {
+            absentKeys[n] = randomKey(random);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        seenIndex.close();
+        Files.deleteIfExists(file);
+    }
+
+    private static String randomKey(Random random) {
+        byte[] b = new byte[16];
+        random.nextBytes(b);
+        return HexFormat.of().withUpperCase().formatHex(b);
+    }
+
+    @Benchmark
+    public boolean containsPresent() {
+        return seenIndex.contains(presentKeys[i++ & (KEY_CT - 1)]);
+    }
+
+    @Benchmark
+    public boolean containsAbsent() {
+        return seenIndex.contains(absentKeys[i++ & (KEY_CT - 1)]);
+    }
+
+    // re-adding present keys refreshes their generation; the table doesn't grow during the run
+    @Benchmark
+    public void addPresent() {
+        seenIndex.add(presentKeys[i++ & (KEY_CT - 1)]);
+    }
+}
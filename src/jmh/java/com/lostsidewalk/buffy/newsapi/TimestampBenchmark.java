@@ -0,0 +1,32 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import com.kwabenaberko.newsapilib.models.Article;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publish timestamp parsing, per 100-article page.
+ */
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TimestampBenchmark {
+
+    private List<String> publishedAts;
+
+    @Setup
+    public void setup() {
+        publishedAts = NewsApiFixtures.articlePage(1L, 0).getArticles().stream()
+                .map(Article::getPublishedAt)
+                .toList();
+    }
+
+    @Benchmark
+    public void parse(Blackhole bh) {
+        for (String publishedAt : publishedAts) {
+            bh.consume(NewsApiPublishDateParser.parse(publishedAt));
+        }
+    }
+}
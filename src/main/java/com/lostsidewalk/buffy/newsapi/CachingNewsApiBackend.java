@@ -0,0 +1,87 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.kwabenaberko.newsapilib.NewsApiClient;
+import com.kwabenaberko.newsapilib.models.response.ArticleResponse;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Caches successful responses by normalized request, so that repeated requests within the TTL skip the network
+ * round trip.  Eviction is LRU, bounded by the maximum number of cached responses.  Streamed requests replay a
+ * cached response if there is one, but are otherwise streamed from the delegate without being cached, since
+ * caching them would mean holding the whole response, which streaming avoids.
+ */
+@Slf4j
+class CachingNewsApiBackend implements NewsApiBackend {
+
+    private final NewsApiBackend delegate;
+
+    private final Cache<NewsApiRequest, ArticleResponse> responseCache;
+
+    CachingNewsApiBackend(NewsApiBackend delegate, Duration ttl, long maxSize, NewsApiMetrics metrics) {
+        this.delegate = delegate;
+        this.responseCache = CacheBuilder.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        metrics.monitorCache(this.responseCache);
+    }
+
+    @Override
+    public void getArticles(NewsApiRequest request, Instant deadline, NewsApiClient.ArticlesResponseCallback callback) {
+        ArticleResponse cached = responseCache.getIfPresent(request);
+        if (cached != null) {
+            log.debug("Response cache hit, request={}", request);
+            callback.onSuccess(cached);
+            return;
+        }
+        delegate.getArticles(request, deadline, new NewsApiClient.ArticlesResponseCallback() {
+            @Override
+            public void onSuccess(ArticleResponse response) {
+                responseCache.put(request, response);
+                callback.onSuccess(response);
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                callback.onFailure(throwable);
+            }
+        });
+    }
+
+    @Override
+    public void streamArticles(NewsApiRequest request, Instant deadline, NewsApiArticleStream articleStream, NewsApiClient.ArticlesResponseCallback callback) {
+        ArticleResponse cached = responseCache.getIfPresent(request);
+        if (cached == null) {
+            delegate.streamArticles(request, deadline, articleStream, callback);
+            return;
+        }
+        log.debug("Response cache hit (streaming), request={}", request);
+        articleStream.onResponse();
+        cached.getArticles().forEach(a -> articleStream.onArticle(a, null));
+        ArticleResponse envelope = new ArticleResponse();
+        envelope.setStatus(cached.getStatus());
+        envelope.setTotalResults(cached.getTotalResults());
+        envelope.setArticles(List.of());
+        callback.onSuccess(envelope);
+    }
+
+    CacheStats getStats() {
+        return responseCache.stats();
+    }
+
+    @Override
+    public void logStats() {
+        CacheStats stats = getStats();
+        log.info("NewsAPI V2 response cache: size={}, hitCt={}, missCt={}, evictionCt={}",
+                responseCache.size(), stats.hitCount(), stats.missCount(), stats.evictionCount());
+        delegate.logStats();
+    }
+}
@@ -0,0 +1,107 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Keeps high-water marks in memory, and writes them to a JSON file on flush, if any changed since the last flush.
+ * The file is replaced atomically, so a crash mid-write leaves the previous snapshot intact.
+ */
+@Slf4j
+class FileHighWaterMarkStore extends InMemoryHighWaterMarkStore {
+
+    private static class PersistedMark {
+        Long latestPublishedAt;
+        List<String> recentHashes;
+    }
+
+    private static final Type PERSISTED_TYPE = new TypeToken<Map<Long, PersistedMark>>() {}.getType();
+
+    private static final Gson GSON = new Gson();
+
+    private final Path file;
+
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    FileHighWaterMarkStore(Path file) {
+        this.file = file;
+        load();
+    }
+
+    private void load() {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (Reader reader = Files.newBufferedReader(file, UTF_8)) {
+            Map<Long, PersistedMark> persisted = GSON.fromJson(reader, PERSISTED_TYPE);
+            if (persisted != null) {
+                persisted.forEach((queryId, m) -> highWaterMarks.put(queryId, new NewsApiHighWaterMark(
+                        m.latestPublishedAt == null ? null : Instant.ofEpochMilli(m.latestPublishedAt),
+                        m.recentHashes == null ? new LinkedHashSet<>() : new LinkedHashSet<>(m.recentHashes))));
+            }
+            log.info("Loaded {} high-water marks from {}", highWaterMarks.size(), file);
+        } catch (Exception e) {
+            log.error("Unable to load high-water marks from {}, starting empty due to: {}", file, e.getMessage());
+        }
+    }
+
+    @Override
+    public void put(Long queryId, NewsApiHighWaterMark highWaterMark) {
+        super.put(queryId, highWaterMark);
+        dirty.set(true);
+    }
+
+    @Override
+    public void retainAll(Set<Long> queryIds) {
+        if (highWaterMarks.keySet().retainAll(queryIds)) {
+            dirty.set(true);
+        }
+    }
+
+    @Override
+    public synchronized void flush() {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        Map<Long, PersistedMark> persisted = new HashMap<>(highWaterMarks.size());
+        highWaterMarks.forEach((queryId, m) -> {
+            PersistedMark p = new PersistedMark();
+            p.latestPublishedAt = m.latestPublishedAt() == null ? null : m.latestPublishedAt().toEpochMilli();
+            p.recentHashes = List.copyOf(m.recentHashes());
+            persisted.put(queryId, p);
+        });
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (Writer writer = Files.newBufferedWriter(tmp, UTF_8)) {
+                GSON.toJson(persisted, PERSISTED_TYPE, writer);
+            }
+            Files.move(tmp, file, REPLACE_EXISTING, ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error("Unable to write high-water marks to {} due to: {}", file, e.getMessage());
+            dirty.set(true);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+class InMemoryHighWaterMarkStore implements NewsApiHighWaterMarkStore {
+
+    protected final Map<Long, NewsApiHighWaterMark> highWaterMarks = new ConcurrentHashMap<>();
+
+    @Override
+    public NewsApiHighWaterMark get(Long queryId) {
+        return queryId == null ? null : highWaterMarks.get(queryId);
+    }
+
+    @Override
+    public void put(Long queryId, NewsApiHighWaterMark highWaterMark) {
+        if (queryId != null) {
+            highWaterMarks.put(queryId, highWaterMark);
+        }
+    }
+
+    @Override
+    public void retainAll(Set<Long> queryIds) {
+        highWaterMarks.keySet().retainAll(queryIds);
+    }
+}
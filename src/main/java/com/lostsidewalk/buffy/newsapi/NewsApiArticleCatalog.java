@@ -0,0 +1,62 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.kwabenaberko.newsapilib.models.Article;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The distinct articles of a single import.  The same story often turns up in the responses of many queries; each
+ * distinct article (by content) is hashed, serialized and parsed once, and the staging posts of every query are
+ * built from the result.  Feed-scoped post hashes are derived from it per feed.
+ * <p>
+ * Articles are looked up by instance first (queries that share a request are handed the same Article instances),
+ * then by content among the most recently used maxSize articles.  With a maxSize of 0, only the instance lookup is
+ * used, so nothing outlives the responses being converted.
+ */
+class NewsApiArticleCatalog {
+
+    private final NewsApiPostHasher postHasher;
+
+    private final Map<Article, NewsApiCanonicalArticle> byInstance = CacheBuilder.newBuilder()
+            .weakKeys()
+            .<Article, NewsApiCanonicalArticle>build()
+            .asMap();
+
+    private final Map<HashCode, NewsApiCanonicalArticle> byContent;
+
+    private final AtomicInteger convertedCt = new AtomicInteger();
+
+    NewsApiArticleCatalog(NewsApiPostHasher postHasher, long maxSize) {
+        this.postHasher = postHasher;
+        this.byContent = maxSize > 0L ? CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .<HashCode, NewsApiCanonicalArticle>build()
+                .asMap() : null;
+    }
+
+    // canonicalJson, if present, was captured while decoding the article
+    NewsApiCanonicalArticle canonicalize(Article article, String canonicalJson) {
+        NewsApiCanonicalArticle canonicalArticle = byInstance.get(article);
+        if (canonicalArticle == null) {
+            HashCode bodyHash = postHasher.computeBodyHash(article);
+            canonicalArticle = byContent != null ?
+                    byContent.computeIfAbsent(bodyHash, h -> convert(article, h, canonicalJson)) :
+                    convert(article, bodyHash, canonicalJson);
+            byInstance.put(article, canonicalArticle);
+        }
+        return canonicalArticle;
+    }
+
+    private NewsApiCanonicalArticle convert(Article article, HashCode bodyHash, String canonicalJson) {
+        convertedCt.incrementAndGet();
+        return NewsApiCanonicalArticle.from(article, bodyHash, postHasher.getCanonicalJson(article, canonicalJson));
+    }
+
+    // articles converted (the distinct articles seen, unless some were evicted and seen again)
+    int getConvertedCount() {
+        return convertedCt.get();
+    }
+}
@@ -0,0 +1,21 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import com.kwabenaberko.newsapilib.models.Article;
+
+/**
+ * Receives articles one at a time, as a response is decoded.
+ */
+interface NewsApiArticleStream {
+
+    /**
+     * Called once the response has arrived (for HTTP, its headers), before its articles are decoded.
+     */
+    default void onResponse() {
+    }
+
+    /**
+     * @param canonicalJson the article as Gson serializes it (the form the post hash is computed over), captured
+     *                      while decoding; null if it wasn't captured
+     */
+    void onArticle(Article article, String canonicalJson);
+}
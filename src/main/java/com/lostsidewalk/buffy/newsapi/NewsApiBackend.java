@@ -0,0 +1,42 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import com.kwabenaberko.newsapilib.NewsApiClient;
+import com.kwabenaberko.newsapilib.models.response.ArticleResponse;
+
+import java.time.Instant;
+
+/**
+ * Executes NewsAPI article requests on behalf of the importer.  Implementations either talk to NewsAPI or
+ * decorate another backend (caching, rate limiting, etc.).
+ */
+interface NewsApiBackend {
+
+    /**
+     * The deadline (null for none) is that of the import sending the request; it bounds waits on the way to NewsAPI.
+     */
+    void getArticles(NewsApiRequest request, Instant deadline, NewsApiClient.ArticlesResponseCallback callback);
+
+    /**
+     * Hands each article of the response to the article stream, then completes the callback with the response
+     * envelope.  Backends that can't decode incrementally stream the articles of the complete response.
+     */
+    default void streamArticles(NewsApiRequest request, Instant deadline, NewsApiArticleStream articleStream, NewsApiClient.ArticlesResponseCallback callback) {
+        getArticles(request, deadline, new NewsApiClient.ArticlesResponseCallback() {
+            @Override
+            public void onSuccess(ArticleResponse response) {
+                articleStream.onResponse();
+                response.getArticles().forEach(a -> articleStream.onArticle(a, null));
+                callback.onSuccess(response);
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                callback.onFailure(throwable);
+            }
+        });
+    }
+
+    default void logStats() {
+        // nothing to report by default
+    }
+}
@@ -0,0 +1,11 @@
+package com.lostsidewalk.buffy.newsapi;
+
+public enum NewsApiBackendType {
+
+    // the newsapi-java client library
+    LIBRARY,
+    // java.net.http.HttpClient, with streaming response decoding
+    HTTP,
+    // generated responses, for load testing (see news.api.synthetic-*)
+    SYNTHETIC
+}
@@ -0,0 +1,36 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import com.google.common.hash.HashCode;
+import com.kwabenaberko.newsapilib.models.Article;
+import com.kwabenaberko.newsapilib.models.Source;
+
+import java.time.Instant;
+import java.util.Date;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * The feed-independent parts of the staging posts for an article, built once per distinct article per import and
+ * shared by the posts of every feed the article turns up in.  It holds only immutable values; each staging post
+ * builds its own content objects, authors and categories from them.
+ *
+ * @param bodyHash      hash of the article content (see NewsApiPostHasher.computeBodyHash)
+ * @param canonicalJson the article as Gson serializes it (COMPATIBLE hash mode only)
+ */
+record NewsApiCanonicalArticle(HashCode bodyHash, String canonicalJson, String title, String description, String content,
+                               String url, String urlToImage, String author, String category, Instant publishedAt) {
+
+    static NewsApiCanonicalArticle from(Article article, HashCode bodyHash, String canonicalJson) {
+        return new NewsApiCanonicalArticle(
+                bodyHash,
+                canonicalJson,
+                article.getTitle(),
+                article.getDescription(),
+                article.getContent(),
+                article.getUrl(),
+                article.getUrlToImage(),
+                article.getAuthor(),
+                ofNullable(article.getSource()).map(Source::getCategory).orElse(null),
+                ofNullable(NewsApiPublishDateParser.parse(article.getPublishedAt())).map(Date::toInstant).orElse(null));
+    }
+}
@@ -0,0 +1,96 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Opens after a run of consecutive upstream failures, failing requests fast until the open interval elapses.  A
+ * single probe request is then let through (half-open); its outcome either closes the circuit or re-opens it.
+ */
+@Slf4j
+class NewsApiCircuitBreaker {
+
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+
+    private final Duration openInterval;
+
+    private final Clock clock;
+
+    private State state = State.CLOSED;
+
+    private int consecutiveFailureCt;
+
+    private Instant openedAt;
+
+    private boolean probeInFlight;
+
+    NewsApiCircuitBreaker(int failureThreshold, Duration openInterval, Clock clock) {
+        this.failureThreshold = failureThreshold;
+        this.openInterval = openInterval;
+        this.clock = clock;
+    }
+
+    synchronized boolean tryAcquire() {
+        if (failureThreshold <= 0) {
+            return true;
+        }
+        switch (state) {
+            case OPEN -> {
+                if (clock.instant().isBefore(openedAt.plus(openInterval))) {
+                    return false;
+                }
+                log.info("NewsAPI V2 circuit breaker half-open, sending probe request");
+                state = State.HALF_OPEN;
+                probeInFlight = true;
+                return true;
+            }
+            case HALF_OPEN -> {
+                if (probeInFlight) {
+                    return false;
+                }
+                probeInFlight = true;
+                return true;
+            }
+            default -> {
+                return true;
+            }
+        }
+    }
+
+    synchronized void onSuccess() {
+        if (state != State.CLOSED) {
+            log.info("NewsAPI V2 circuit breaker closed");
+        }
+        state = State.CLOSED;
+        consecutiveFailureCt = 0;
+        probeInFlight = false;
+    }
+
+    synchronized void onFailure() {
+        consecutiveFailureCt++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && failureThreshold > 0 && consecutiveFailureCt >= failureThreshold)) {
+            log.warn("NewsAPI V2 circuit breaker opened after {} consecutive failures", consecutiveFailureCt);
+            state = State.OPEN;
+            openedAt = clock.instant();
+        }
+        probeInFlight = false;
+    }
+
+    // the request didn't reach the upstream (or its outcome says nothing about upstream health)
+    synchronized void onIgnored() {
+        probeInFlight = false;
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+}
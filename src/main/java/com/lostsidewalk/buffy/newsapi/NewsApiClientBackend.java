@@ -0,0 +1,26 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import com.kwabenaberko.newsapilib.NewsApiClient;
+
+import java.time.Instant;
+
+import static com.lostsidewalk.buffy.newsapi.NewsApiImporter.NEWSAPIV2_EVERYTHING;
+import static com.lostsidewalk.buffy.newsapi.NewsApiImporter.NEWSAPIV2_HEADLINES;
+
+class NewsApiClientBackend implements NewsApiBackend {
+
+    private final NewsApiClient newsApiClient;
+
+    NewsApiClientBackend(NewsApiClient newsApiClient) {
+        this.newsApiClient = newsApiClient;
+    }
+
+    @Override
+    public void getArticles(NewsApiRequest request, Instant deadline, NewsApiClient.ArticlesResponseCallback callback) {
+        switch (request.queryType()) {
+            case NEWSAPIV2_EVERYTHING -> newsApiClient.getEverything(request.toEverythingRequest(), callback);
+            case NEWSAPIV2_HEADLINES -> newsApiClient.getTopHeadlines(request.toTopHeadlinesRequest(), callback);
+            default -> callback.onFailure(new IllegalArgumentException("Query type not supported: " + request.queryType()));
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import java.util.List;
+
+/**
+ * The importer nodes that split each import between them (see NewsApiQueryPartitioner).  Applications with a
+ * coordination service can provide an implementation as a bean; otherwise membership comes from
+ * news.api.partition-node-id and news.api.partition-node-count.
+ */
+public interface NewsApiClusterMembership {
+
+    String getLocalNodeId();
+
+    // the current members, including the local node
+    List<String> getMembers();
+}
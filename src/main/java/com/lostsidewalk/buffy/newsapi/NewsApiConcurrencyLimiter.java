@@ -0,0 +1,181 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounds the requests in flight, adjusting the bound from observed request outcomes (AIMD, after TCP congestion
+ * avoidance): while the smoothed latency stays close to the no-load baseline, the limit grows by about one per
+ * round trip (as long as it's actually being used); an inflated latency lowers it slightly, and an upstream failure
+ * (timeout, rate limit, server or network error) halves it, at most once per round trip, so that a burst of failures
+ * from the same overload counts once.  With equal min and max limits this is a plain semaphore.
+ */
+@Slf4j
+class NewsApiConcurrencyLimiter {
+
+    // a smoothed latency this many times the baseline indicates queueing upstream
+    private static final double LATENCY_TOLERANCE = 2.0;
+
+    private static final double LATENCY_BACKOFF_RATIO = 0.9;
+
+    private static final double FAILURE_BACKOFF_RATIO = 0.5;
+
+    // the baseline is the minimum latency over the last one to two windows of samples, so that a permanent change in
+    // upstream latency isn't mistaken for overload forever
+    private static final int BASELINE_WINDOW = 500;
+
+    private static final double SMOOTHING_FACTOR = 0.1;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // a lock/condition rather than a monitor, so that waiting virtual threads don't pin their carriers
+    private final Condition permitAvailable = lock.newCondition();
+
+    private double limit;
+
+    private int inFlight;
+
+    private int waiting;
+
+    private long previousWindowMinRttNanos = Long.MAX_VALUE;
+
+    private long windowMinRttNanos = Long.MAX_VALUE;
+
+    private int windowSampleCt;
+
+    private double smoothedRttNanos = Double.NaN;
+
+    private long lastDecreaseNanos;
+
+    NewsApiConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        this.lastDecreaseNanos = System.nanoTime();
+    }
+
+    boolean tryAcquire(long timeout, TimeUnit unit) throws InterruptedException {
+        long remainingNanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            waiting++;
+            try {
+                while (inFlight >= getLimitInternal()) {
+                    if (remainingNanos <= 0L) {
+                        return false;
+                    }
+                    remainingNanos = permitAvailable.awaitNanos(remainingNanos);
+                }
+            } finally {
+                waiting--;
+            }
+            inFlight++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void release() {
+        lock.lock();
+        try {
+            inFlight--;
+            permitAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void onSuccess(long rttNanos) {
+        if (minLimit == maxLimit) {
+            return;
+        }
+        lock.lock();
+        try {
+            int previousLimit = getLimitInternal();
+            windowMinRttNanos = Math.min(windowMinRttNanos, rttNanos);
+            if (++windowSampleCt == BASELINE_WINDOW) {
+                previousWindowMinRttNanos = windowMinRttNanos;
+                windowMinRttNanos = Long.MAX_VALUE;
+                windowSampleCt = 0;
+            }
+            long baselineRttNanos = Math.min(previousWindowMinRttNanos, windowMinRttNanos);
+            smoothedRttNanos = Double.isNaN(smoothedRttNanos) ?
+                    rttNanos : smoothedRttNanos + (rttNanos - smoothedRttNanos) * SMOOTHING_FACTOR;
+            if (smoothedRttNanos > baselineRttNanos * LATENCY_TOLERANCE) {
+                decrease(LATENCY_BACKOFF_RATIO);
+            } else if (inFlight * 2 >= previousLimit) {
+                // only grow a limit that's being used; otherwise it would ratchet up to the max while idle
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+            if (getLimitInternal() > previousLimit) {
+                permitAvailable.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void onFailure() {
+        if (minLimit == maxLimit) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (decrease(FAILURE_BACKOFF_RATIO)) {
+                log.debug("NewsAPI V2 concurrency limit reduced to {} after an upstream failure", getLimitInternal());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // called with the lock held
+    private boolean decrease(double backoffRatio) {
+        long nowNanos = System.nanoTime();
+        if (!Double.isNaN(smoothedRttNanos) && nowNanos - lastDecreaseNanos < smoothedRttNanos) {
+            return false;
+        }
+        lastDecreaseNanos = nowNanos;
+        limit = Math.max(minLimit, limit * backoffRatio);
+        return true;
+    }
+
+    int getLimit() {
+        lock.lock();
+        try {
+            return getLimitInternal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int getWaiting() {
+        lock.lock();
+        try {
+            return waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int getLimitInternal() {
+        return (int) limit;
+    }
+}
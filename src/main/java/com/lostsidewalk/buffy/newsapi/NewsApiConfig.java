@@ -1,18 +1,124 @@
 package com.lostsidewalk.buffy.newsapi;
 
+import com.google.common.util.concurrent.RateLimiter;
 import com.kwabenaberko.newsapilib.NewsApiClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.net.http.HttpClient;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+
+@Slf4j
 @Configuration
+@SuppressWarnings("UnstableApiUsage")
 public class NewsApiConfig {
 
     @Autowired
     NewsApiImporterConfigProps configProps;
 
+    // provided by the application (e.g., by actuator); importer metrics are discarded without one
+    @Autowired(required = false)
+    MeterRegistry meterRegistry;
+
     @Bean
     NewsApiClient newsApiClient() {
-        return new NewsApiClient(configProps.getKey());
+        List<String> apiKeys = getApiKeys();
+        return new NewsApiClient(apiKeys.isEmpty() ? null : apiKeys.get(0));
+    }
+
+    @Bean
+    NewsApiMetrics newsApiMetrics() {
+        return new NewsApiMetrics(meterRegistry);
+    }
+
+    @Bean
+    NewsApiBackend newsApiBackend(NewsApiClient newsApiClient, NewsApiMetrics newsApiMetrics, NewsApiMockDataGenerator newsApiMockDataGenerator) {
+        HttpClient httpClient = null;
+        if (configProps.getBackendType() == NewsApiBackendType.SYNTHETIC) {
+            log.warn("NewsAPI V2 synthetic backend enabled: latencyMillis={}, failureRate={}", configProps.getSyntheticLatencyMillis(), configProps.getSyntheticFailureRate());
+        } else if (configProps.getBackendType() == NewsApiBackendType.HTTP) {
+            log.info("NewsAPI V2 HTTP backend enabled: baseUrl={}, connectTimeoutMillis={}, requestTimeoutMillis={}",
+                    configProps.getBaseUrl(), configProps.getConnectTimeoutMillis(), configProps.getRequestTimeoutMillis());
+            // shared by all keys (the key is sent per request)
+            httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_2)
+                    .connectTimeout(Duration.ofMillis(configProps.getConnectTimeoutMillis()))
+                    .followRedirects(HttpClient.Redirect.NORMAL)
+                    .build();
+        }
+        double requestsPerSecond = configProps.getRequestsPerSecond();
+        long dailyRequestBudget = configProps.getDailyRequestBudget();
+        if (requestsPerSecond > 0.0 || dailyRequestBudget > 0L) {
+            log.info("NewsAPI V2 rate limiting enabled: requestsPerSecond={}, dailyRequestBudget={}", requestsPerSecond, dailyRequestBudget);
+        }
+        List<String> apiKeys = getApiKeys();
+        NewsApiBackend backend;
+        if (apiKeys.size() > 1) {
+            log.info("NewsAPI V2 key sharding enabled: keyCt={}", apiKeys.size());
+            List<ShardedNewsApiBackend.Shard> shards = new ArrayList<>(apiKeys.size());
+            for (int i = 0; i < apiKeys.size(); i++) {
+                String apiKey = apiKeys.get(i);
+                // the newsApiClient bean already holds the first key, so the first shard shares it rather than opening a second client
+                NewsApiClient keyClient = i == 0 ? newsApiClient : new NewsApiClient(apiKey);
+                shards.add(new ShardedNewsApiBackend.Shard("key-" + (i + 1), apiKey,
+                        keyBackend(apiKey, keyClient, httpClient, newsApiMetrics, newsApiMockDataGenerator)));
+            }
+            ShardedNewsApiBackend shardedBackend = new ShardedNewsApiBackend(shards, Clock.systemUTC());
+            newsApiMetrics.gauge("newsapi.importer.keys.available", "API keys in rotation",
+                    shardedBackend, ShardedNewsApiBackend::getAvailableCount);
+            backend = shardedBackend;
+        } else {
+            backend = keyBackend(apiKeys.isEmpty() ? null : apiKeys.get(0), newsApiClient, httpClient, newsApiMetrics, newsApiMockDataGenerator);
+        }
+        long responseCacheTtlSecs = configProps.getResponseCacheTtlSecs();
+        if (responseCacheTtlSecs > 0) {
+            log.info("NewsAPI V2 response cache enabled: ttlSecs={}, maxSize={}", responseCacheTtlSecs, configProps.getResponseCacheMaxSize());
+            backend = new CachingNewsApiBackend(backend, Duration.ofSeconds(responseCacheTtlSecs), configProps.getResponseCacheMaxSize(),
+                    newsApiMetrics);
+        }
+        return backend;
+    }
+
+    // the backend for a single API key, with that key's rate limit and daily budget
+    private NewsApiBackend keyBackend(String apiKey, NewsApiClient newsApiClient, HttpClient httpClient, NewsApiMetrics newsApiMetrics,
+                                      NewsApiMockDataGenerator newsApiMockDataGenerator) {
+        NewsApiBackend backend;
+        if (configProps.getBackendType() == NewsApiBackendType.SYNTHETIC) {
+            backend = new SyntheticNewsApiBackend(newsApiMockDataGenerator, configProps.getSyntheticLatencyMillis(), configProps.getSyntheticFailureRate());
+        } else if (configProps.getBackendType() == NewsApiBackendType.HTTP) {
+            backend = new NewsApiHttpBackend(httpClient, configProps.getBaseUrl(), apiKey,
+                    Duration.ofMillis(configProps.getRequestTimeoutMillis()));
+        } else {
+            backend = new NewsApiClientBackend(newsApiClient);
+        }
+        // beneath the rate limiter (and the response cache), so only actual round trips to NewsAPI are timed
+        backend = new TimedNewsApiBackend(backend, newsApiMetrics);
+        double requestsPerSecond = configProps.getRequestsPerSecond();
+        long dailyRequestBudget = configProps.getDailyRequestBudget();
+        if (requestsPerSecond > 0.0 || dailyRequestBudget > 0L) {
+            backend = new RateLimitedNewsApiBackend(backend,
+                    requestsPerSecond > 0.0 ? RateLimiter.create(requestsPerSecond) : null,
+                    dailyRequestBudget > 0L ? new NewsApiQuotaBudget(dailyRequestBudget, Clock.systemUTC()) : null,
+                    newsApiMetrics);
+        }
+        return backend;
+    }
+
+    // news.api.keys if set, otherwise news.api.key
+    private List<String> getApiKeys() {
+        List<String> keys = configProps.getKeys();
+        if (keys != null && keys.stream().anyMatch(StringUtils::isNotBlank)) {
+            return keys.stream().filter(StringUtils::isNotBlank).map(String::trim).distinct().toList();
+        }
+        return isNotBlank(configProps.getKey()) ? List.of(configProps.getKey()) : List.of();
     }
 }
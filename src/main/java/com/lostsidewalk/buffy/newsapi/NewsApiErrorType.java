@@ -0,0 +1,77 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.http.HttpTimeoutException;
+import java.util.concurrent.TimeoutException;
+
+import static org.apache.commons.lang3.StringUtils.containsAny;
+import static org.apache.commons.lang3.StringUtils.lowerCase;
+
+/**
+ * Classification of NewsAPI query failures.  QueryMetrics.QueryExceptionType is shared by all importers and
+ * doesn't distinguish these cases, so the classification is carried as a prefix on the error detail.
+ */
+enum NewsApiErrorType {
+
+    TIMEOUT,
+    RATE_LIMITED,
+    AUTH,
+    SERVER,
+    NETWORK,
+    CLIENT,
+    INVALID_CONFIG,
+    // the query was skipped because the daily request budget is spent; not an upstream failure
+    QUOTA_EXHAUSTED,
+    // the query was skipped because the circuit breaker is open
+    CIRCUIT_OPEN,
+    OTHER;
+
+    String toErrorDetail(String message) {
+        return name() + ": " + message;
+    }
+
+    boolean isSkip() {
+        return this == QUOTA_EXHAUSTED || this == CIRCUIT_OPEN;
+    }
+
+    boolean isRetryable() {
+        return this == TIMEOUT || this == RATE_LIMITED || this == SERVER || this == NETWORK;
+    }
+
+    // failures that indicate the upstream is unhealthy (as opposed to a problem with the request itself)
+    boolean isUpstreamFailure() {
+        return isRetryable();
+    }
+
+    static NewsApiErrorType classify(Throwable throwable) {
+        if (throwable instanceof NewsApiQueryException e) {
+            return e.getErrorType();
+        }
+        if (throwable instanceof InterruptedIOException || throwable instanceof HttpTimeoutException
+                || throwable instanceof TimeoutException) {
+            return TIMEOUT;
+        }
+        // the client reports error responses by message (the NewsAPI error message, or the HTTP status line)
+        String message = lowerCase(throwable.getMessage());
+        if (containsAny(message, "exhausted", "no more requests")) {
+            return QUOTA_EXHAUSTED;
+        }
+        if (containsAny(message, "ratelimited", "rate limited", "too many requests", "http 429")) {
+            return RATE_LIMITED;
+        }
+        if (containsAny(message, "api key", "apikey", "unauthorized", "http 401")) {
+            return AUTH;
+        }
+        if (containsAny(message, "unexpectederror", "internal server error", "bad gateway", "service unavailable", "gateway timeout", "http 5")) {
+            return SERVER;
+        }
+        if (containsAny(message, "parameterinvalid", "parametersmissing", "sourcestoomany", "sourcedoesnotexist", "http 4")) {
+            return CLIENT;
+        }
+        if (throwable instanceof IOException) {
+            return NETWORK;
+        }
+        return OTHER;
+    }
+}
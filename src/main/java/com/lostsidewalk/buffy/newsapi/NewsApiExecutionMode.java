@@ -0,0 +1,9 @@
+package com.lostsidewalk.buffy.newsapi;
+
+public enum NewsApiExecutionMode {
+
+    // fixed pool of platform threads, sized by news.api.max-concurrency
+    FIXED,
+    // one virtual thread per query, with at most news.api.max-concurrency queries in flight
+    VIRTUAL
+}
@@ -0,0 +1,9 @@
+package com.lostsidewalk.buffy.newsapi;
+
+public enum NewsApiHashMode {
+
+    // MD5 over the serialized article JSON; identical to the post hashes produced by earlier versions
+    COMPATIBLE,
+    // 128-bit murmur3 over the article fields; cheaper, but not comparable with COMPATIBLE hashes
+    FAST
+}
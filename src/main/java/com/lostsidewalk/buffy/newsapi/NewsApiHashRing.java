@@ -0,0 +1,61 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import com.google.common.hash.HashFunction;
+
+import java.util.*;
+
+import static com.google.common.hash.Hashing.murmur3_128;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A consistent-hash ring.  Each node is placed at a number of (virtual) positions derived from its id, so a key
+ * keeps mapping to the same node, and adding or removing a node only moves the keys of that node.
+ */
+class NewsApiHashRing<T> {
+
+    private static final int VIRTUAL_NODES_PER_NODE = 128;
+
+    private static final HashFunction RING_HASH = murmur3_128();
+
+    private final NavigableMap<Long, T> ring = new TreeMap<>();
+
+    private final int nodeCt;
+
+    NewsApiHashRing(Map<String, T> nodesById) {
+        nodesById.forEach((id, node) -> {
+            for (int i = 0; i < VIRTUAL_NODES_PER_NODE; i++) {
+                ring.put(RING_HASH.hashString(id + "#" + i, UTF_8).asLong(), node);
+            }
+        });
+        this.nodeCt = nodesById.size();
+    }
+
+    T getOwner(String key) {
+        if (ring.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, T> entry = ring.ceilingEntry(position(key));
+        return (entry != null ? entry : ring.firstEntry()).getValue();
+    }
+
+    // distinct nodes, in ring order starting from the key's owner
+    Iterator<T> getCandidates(String key) {
+        long position = position(key);
+        Set<T> candidates = new LinkedHashSet<>();
+        for (T node : ring.tailMap(position, true).values()) {
+            if (candidates.add(node) && candidates.size() == nodeCt) {
+                return candidates.iterator();
+            }
+        }
+        for (T node : ring.headMap(position, false).values()) {
+            if (candidates.add(node) && candidates.size() == nodeCt) {
+                break;
+            }
+        }
+        return candidates.iterator();
+    }
+
+    private static long position(String key) {
+        return RING_HASH.hashString(key, UTF_8).asLong();
+    }
+}
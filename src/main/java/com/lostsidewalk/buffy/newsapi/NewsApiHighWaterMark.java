@@ -0,0 +1,38 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * What a query has already imported: the latest publish timestamp seen, and the post hashes of its most recent
+ * imports (oldest first, bounded in size).
+ */
+record NewsApiHighWaterMark(Instant latestPublishedAt, Set<String> recentHashes) {
+
+    NewsApiHighWaterMark {
+        recentHashes = Collections.unmodifiableSet(recentHashes);
+    }
+
+    boolean isKnown(String postHash) {
+        return recentHashes.contains(postHash);
+    }
+
+    NewsApiHighWaterMark advance(Instant publishedAt, Collection<String> newHashes, int maxHashes) {
+        Instant latest = latestPublishedAt;
+        if (publishedAt != null && (latest == null || publishedAt.isAfter(latest))) {
+            latest = publishedAt;
+        }
+        LinkedHashSet<String> hashes = new LinkedHashSet<>(recentHashes);
+        hashes.addAll(newHashes);
+        Iterator<String> it = hashes.iterator();
+        for (int excess = hashes.size() - maxHashes; excess > 0 && it.hasNext(); excess--) {
+            it.next();
+            it.remove();
+        }
+        return new NewsApiHighWaterMark(latest, hashes);
+    }
+
+    static NewsApiHighWaterMark empty() {
+        return new NewsApiHighWaterMark(null, new LinkedHashSet<>());
+    }
+}
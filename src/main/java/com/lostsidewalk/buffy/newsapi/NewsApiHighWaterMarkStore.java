@@ -0,0 +1,17 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import java.util.Set;
+
+interface NewsApiHighWaterMarkStore {
+
+    NewsApiHighWaterMark get(Long queryId);
+
+    void put(Long queryId, NewsApiHighWaterMark highWaterMark);
+
+    // drop the marks of queries that no longer exist
+    void retainAll(Set<Long> queryIds);
+
+    // persist any buffered updates; called at the end of each import
+    default void flush() {
+    }
+}
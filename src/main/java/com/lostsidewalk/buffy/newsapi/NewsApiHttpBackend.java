@@ -0,0 +1,184 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import com.kwabenaberko.newsapilib.NewsApiClient;
+import com.kwabenaberko.newsapilib.models.response.ArticleResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+
+import static com.lostsidewalk.buffy.newsapi.NewsApiImporter.NEWSAPIV2_EVERYTHING;
+import static com.lostsidewalk.buffy.newsapi.NewsApiImporter.NEWSAPIV2_HEADLINES;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.apache.commons.lang3.StringUtils.removeEnd;
+
+/**
+ * Calls NewsAPI with java.net.http.HttpClient.  The client (and its connection pool) is shared by all requests;
+ * responses are requested gzip-compressed and decoded as they stream in.  Streamed requests hand off each article
+ * as soon as it's decoded.  The request timeout covers the wait for the response headers; the body then has to
+ * arrive within another request timeout, and before the import deadline, or its stream is closed and the request
+ * fails with an HttpTimeoutException.
+ */
+class NewsApiHttpBackend implements NewsApiBackend {
+
+    // closes response bodies still being read at their deadline, which unblocks a read stalled on the upstream
+    private static final ScheduledThreadPoolExecutor BODY_DEADLINES = new ScheduledThreadPoolExecutor(1,
+            Thread.ofPlatform().daemon().name("newsapiv2-body-deadline").factory());
+
+    static {
+        BODY_DEADLINES.setRemoveOnCancelPolicy(true);
+    }
+
+    private final HttpClient httpClient;
+
+    private final String baseUrl;
+
+    private final String apiKey;
+
+    private final Duration requestTimeout;
+
+    NewsApiHttpBackend(HttpClient httpClient, String baseUrl, String apiKey, Duration requestTimeout) {
+        this.httpClient = httpClient;
+        this.baseUrl = removeEnd(baseUrl, "/");
+        this.apiKey = apiKey;
+        this.requestTimeout = requestTimeout;
+    }
+
+    @Override
+    public void getArticles(NewsApiRequest request, Instant deadline, NewsApiClient.ArticlesResponseCallback callback) {
+        send(request, deadline, NewsApiResponseReader::readArticleResponse, callback);
+    }
+
+    @Override
+    public void streamArticles(NewsApiRequest request, Instant deadline, NewsApiArticleStream articleStream, NewsApiClient.ArticlesResponseCallback callback) {
+        send(request, deadline, body -> {
+            articleStream.onResponse();
+            return NewsApiResponseReader.streamArticleResponse(body, articleStream);
+        }, callback);
+    }
+
+    private interface BodyDecoder {
+
+        ArticleResponse decode(InputStream body) throws IOException;
+    }
+
+    private void send(NewsApiRequest request, Instant deadline, BodyDecoder bodyDecoder, NewsApiClient.ArticlesResponseCallback callback) {
+        HttpRequest httpRequest;
+        try {
+            httpRequest = HttpRequest.newBuilder(buildUri(request))
+                    .timeout(requestTimeout)
+                    .header("X-Api-Key", apiKey)
+                    .header("Accept", "application/json")
+                    .header("Accept-Encoding", "gzip")
+                    .GET()
+                    .build();
+        } catch (Exception e) {
+            callback.onFailure(e);
+            return;
+        }
+        httpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofInputStream())
+                .thenApply(response -> decode(response, bodyDeadline(deadline), bodyDecoder))
+                .whenComplete((articleResponse, throwable) -> {
+                    if (throwable != null) {
+                        callback.onFailure(throwable instanceof CompletionException && throwable.getCause() != null ?
+                                throwable.getCause() : throwable);
+                    } else {
+                        callback.onSuccess(articleResponse);
+                    }
+                });
+    }
+
+    URI buildUri(NewsApiRequest request) {
+        StringBuilder uri = new StringBuilder(baseUrl);
+        switch (request.queryType()) {
+            case NEWSAPIV2_EVERYTHING -> {
+                uri.append("/v2/everything?");
+                appendParam(uri, "q", request.queryText());
+                appendParam(uri, "language", request.language());
+                appendParam(uri, "sources", request.sources());
+                appendParam(uri, "from", request.from());
+            }
+            case NEWSAPIV2_HEADLINES -> {
+                uri.append("/v2/top-headlines?");
+                appendParam(uri, "q", request.queryText());
+                appendParam(uri, "language", request.language());
+                appendParam(uri, "sources", request.sources());
+                appendParam(uri, "country", request.country());
+                appendParam(uri, "category", request.category());
+            }
+            default -> throw new IllegalArgumentException("Query type not supported: " + request.queryType());
+        }
+        appendParam(uri, "page", request.page());
+        appendParam(uri, "pageSize", request.pageSize());
+        uri.setLength(uri.length() - 1); // trailing '&' or '?'
+        return URI.create(uri.toString());
+    }
+
+    private static void appendParam(StringBuilder uri, String name, Object value) {
+        if (value != null) {
+            uri.append(name).append('=').append(URLEncoder.encode(value.toString(), UTF_8)).append('&');
+        }
+    }
+
+    private Instant bodyDeadline(Instant deadline) {
+        Instant timeoutAt = Instant.now().plus(requestTimeout);
+        return deadline != null && deadline.isBefore(timeoutAt) ? deadline : timeoutAt;
+    }
+
+    private static ArticleResponse decode(HttpResponse<InputStream> response, Instant bodyDeadline, BodyDecoder bodyDecoder) {
+        AtomicBoolean expired = new AtomicBoolean();
+        ScheduledFuture<?> expiry = BODY_DEADLINES.schedule(() -> {
+            expired.set(true);
+            try {
+                response.body().close();
+            } catch (IOException ignored) {
+                // the reader fails either way
+            }
+        }, Math.max(0L, Duration.between(Instant.now(), bodyDeadline).toNanos()), NANOSECONDS);
+        try (InputStream body = response.headers().firstValue("Content-Encoding")
+                .filter("gzip"::equalsIgnoreCase)
+                .isPresent() ? new GZIPInputStream(response.body()) : response.body()) {
+            try {
+                return bodyDecoder.decode(body);
+            } catch (NewsApiQueryException e) {
+                throw e;
+            } catch (Exception e) {
+                // not a NewsAPI response body (e.g., a proxy error page); classify by status
+                if (response.statusCode() >= 400 && !expired.get()) {
+                    throw new NewsApiQueryException(toErrorType(response.statusCode()), "HTTP " + response.statusCode());
+                }
+                throw e;
+            }
+        } catch (IOException e) {
+            if (expired.get()) {
+                throw new CompletionException(new HttpTimeoutException("Response body not received before the deadline"));
+            }
+            throw new CompletionException(e);
+        } finally {
+            expiry.cancel(false);
+        }
+    }
+
+    private static NewsApiErrorType toErrorType(int statusCode) {
+        if (statusCode == 401) {
+            return NewsApiErrorType.AUTH;
+        }
+        if (statusCode == 429) {
+            return NewsApiErrorType.RATE_LIMITED;
+        }
+        return statusCode >= 500 ? NewsApiErrorType.SERVER : NewsApiErrorType.CLIENT;
+    }
+}
@@ -0,0 +1,155 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import com.lostsidewalk.buffy.Importer.ImportResult;
+import com.lostsidewalk.buffy.post.StagingPost;
+import com.lostsidewalk.buffy.query.QueryDefinition;
+import com.lostsidewalk.buffy.query.QueryMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.Collections.emptySet;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Tracks the queries of a single import run.  Each query owns a result slot that is filled exactly once, either by
+ * the worker that ran the query or by the deadline; slots are merged into the ImportResult when the run is closed,
+ * so workers never contend on shared collections.  If the run has a post publisher, posts are published as each
+ * query completes instead, and the ImportResult carries only the query metrics.
+ */
+@Slf4j
+class NewsApiImportRun {
+
+    private record QueryOutcome(Set<StagingPost> stagingPosts, QueryMetrics queryMetrics, List<String> postHashes, boolean failed) {}
+
+    // marks a slot whose posts are still being published
+    private static final QueryOutcome PUBLISHING = new QueryOutcome(emptySet(), null, List.of(), false);
+
+    // keyed by identity and never modified after construction, so workers can read it without synchronization
+    private final Map<QueryDefinition, AtomicReference<QueryOutcome>> slots = new IdentityHashMap<>();
+
+    private final CountDownLatch latch;
+
+    private final NewsApiPostPublisher postPublisher;
+
+    private final NewsApiArticleCatalog articleCatalog;
+
+    private final AtomicInteger timedOutCt = new AtomicInteger();
+
+    NewsApiImportRun(List<QueryDefinition> queryDefinitions, NewsApiPostPublisher postPublisher, NewsApiArticleCatalog articleCatalog) {
+        queryDefinitions.forEach(q -> this.slots.put(q, new AtomicReference<>()));
+        this.latch = new CountDownLatch(this.slots.size());
+        this.postPublisher = postPublisher;
+        this.articleCatalog = articleCatalog;
+    }
+
+    // returns false if the result was discarded (the query already completed, or the run closed)
+    boolean success(QueryDefinition queryDefinition, Set<StagingPost> stagingPosts, QueryMetrics qm) {
+        List<String> postHashes = stagingPosts.stream().map(StagingPost::getPostHash).toList();
+        return complete(queryDefinition, new QueryOutcome(stagingPosts, qm, postHashes, false));
+    }
+
+    void failure(QueryDefinition queryDefinition, QueryMetrics qm) {
+        complete(queryDefinition, new QueryOutcome(emptySet(), qm, List.of(), true));
+    }
+
+    private boolean complete(QueryDefinition queryDefinition, QueryOutcome outcome) {
+        AtomicReference<QueryOutcome> slot = slots.get(queryDefinition);
+        if (slot == null) {
+            return false;
+        }
+        if (postPublisher == null && slot.compareAndSet(null, outcome)) {
+            latch.countDown();
+            return true;
+        }
+        // the posts go to the publisher, and only the metrics are kept; publishing blocks while the subscriber is behind,
+        // so the slot is claimed with a marker that the close reports as timed out if the deadline fires meanwhile
+        if (postPublisher != null && slot.compareAndSet(null, PUBLISHING)) {
+            boolean published = postPublisher.publish(outcome.stagingPosts());
+            QueryOutcome kept = published ? new QueryOutcome(emptySet(), outcome.queryMetrics(), outcome.postHashes(), outcome.failed()) :
+                    unpublished(queryDefinition, new Date());
+            if (!slot.compareAndSet(PUBLISHING, kept)) {
+                log.warn("Import deadline passed while publishing posts for queryId={}", queryDefinition.getId());
+                return false;
+            }
+            if (!published) {
+                timedOutCt.incrementAndGet();
+            }
+            latch.countDown();
+            return published;
+        }
+        log.warn("Discarding result for query already completed or timed out, queryId={}", queryDefinition.getId());
+        return false;
+    }
+
+    // the distinct articles seen by this run
+    NewsApiArticleCatalog getArticleCatalog() {
+        return articleCatalog;
+    }
+
+    long getPendingCount() {
+        return latch.getCount();
+    }
+
+    ImportResult await(Duration timeout) throws InterruptedException {
+        latch.await(timeout.toMillis(), MILLISECONDS);
+        return close();
+    }
+
+    ImportResult close() {
+        Date closeTimestamp = new Date();
+        Map<String, StagingPost> importMap = new HashMap<>();
+        List<QueryMetrics> queryMetrics = new ArrayList<>(slots.size());
+        int closeTimedOutCt = 0;
+        for (Map.Entry<QueryDefinition, AtomicReference<QueryOutcome>> e : slots.entrySet()) {
+            AtomicReference<QueryOutcome> slot = e.getValue();
+            QueryOutcome current = slot.get();
+            if (current == null && slot.compareAndSet(null, timedOut(e.getKey(), closeTimestamp))) {
+                closeTimedOutCt++;
+            } else if (current == PUBLISHING && slot.compareAndSet(PUBLISHING, unpublished(e.getKey(), closeTimestamp))) {
+                closeTimedOutCt++;
+            }
+            QueryOutcome outcome = slot.get();
+            outcome.stagingPosts().forEach(s -> importMap.putIfAbsent(s.getPostHash(), s));
+            queryMetrics.add(outcome.queryMetrics());
+        }
+        if (closeTimedOutCt > 0) {
+            log.warn("NewsAPI V2 import deadline exceeded, timedOutCt={}", closeTimedOutCt);
+            timedOutCt.addAndGet(closeTimedOutCt);
+        }
+        return ImportResult.from(new HashSet<>(importMap.values()), queryMetrics);
+    }
+
+    // queries that didn't complete (or publish) before the deadline
+    int getTimedOutCount() {
+        return timedOutCt.get();
+    }
+
+    // call after the run is closed
+    void recordOutcomes(NewsApiQueryScheduler queryScheduler) {
+        slots.forEach((q, slot) -> {
+            QueryOutcome outcome = slot.get();
+            if (outcome != null) {
+                queryScheduler.record(q, outcome.postHashes(), outcome.failed());
+            }
+        });
+    }
+
+    private static QueryOutcome unpublished(QueryDefinition queryDefinition, Date timestamp) {
+        QueryMetrics qm = QueryMetrics.from(queryDefinition.getId(), timestamp, 0);
+        qm.setErrorType(QueryMetrics.QueryExceptionType.OTHER);
+        qm.setErrorDetail(NewsApiErrorType.TIMEOUT.toErrorDetail("Posts could not be published before the import deadline"));
+        return new QueryOutcome(emptySet(), qm, List.of(), true);
+    }
+
+    private static QueryOutcome timedOut(QueryDefinition queryDefinition, Date timestamp) {
+        QueryMetrics qm = QueryMetrics.from(queryDefinition.getId(), timestamp, 0);
+        qm.setErrorType(QueryMetrics.QueryExceptionType.OTHER);
+        qm.setErrorDetail(NewsApiErrorType.TIMEOUT.toErrorDetail("Query did not complete before the import deadline"));
+        return new QueryOutcome(emptySet(), qm, List.of(), true);
+    }
+}
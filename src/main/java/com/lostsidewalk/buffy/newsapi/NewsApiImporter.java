@@ -1,17 +1,10 @@
 package com.lostsidewalk.buffy.newsapi;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
-import com.google.gson.Gson;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.reflect.TypeToken;
 import com.kwabenaberko.newsapilib.NewsApiClient;
 import com.kwabenaberko.newsapilib.models.Article;
 import com.kwabenaberko.newsapilib.models.Source;
-import com.kwabenaberko.newsapilib.models.request.EverythingRequest;
 import com.kwabenaberko.newsapilib.models.request.SourcesRequest;
-import com.kwabenaberko.newsapilib.models.request.TopHeadlinesRequest;
 import com.kwabenaberko.newsapilib.models.response.ArticleResponse;
 import com.kwabenaberko.newsapilib.models.response.SourcesResponse;
 import com.lostsidewalk.buffy.Importer;
@@ -22,34 +15,35 @@ import com.lostsidewalk.buffy.post.StagingPost;
 import com.lostsidewalk.buffy.query.QueryDefinition;
 import com.lostsidewalk.buffy.query.QueryMetrics;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.io.Serializable;
-import java.lang.reflect.Type;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
-import java.time.ZoneId;
-import java.time.ZonedDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.*;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 
-import static java.time.format.DateTimeFormatter.ISO_INSTANT;
+import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
+import static java.time.format.DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+import static java.time.temporal.ChronoUnit.SECONDS;
+import static java.util.Comparator.comparingInt;
 import static java.util.Optional.ofNullable;
 import static java.util.concurrent.Executors.newFixedThreadPool;
-import static java.util.stream.Collectors.joining;
+import static java.util.concurrent.Executors.newThreadPerTaskExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.stream.Collectors.toList;
-import static javax.xml.bind.DatatypeConverter.printHexBinary;
-import static org.apache.commons.collections4.CollectionUtils.isNotEmpty;
-import static org.apache.commons.collections4.CollectionUtils.size;
+import static java.util.stream.Collectors.toSet;
 import static org.apache.commons.lang3.BooleanUtils.isTrue;
-import static org.apache.commons.lang3.SerializationUtils.serialize;
 import static org.apache.commons.lang3.StringUtils.*;
 
 @Slf4j
@@ -68,8 +62,43 @@ public class NewsApiImporter implements Importer {
     @Autowired
     NewsApiClient newsApiClient;
 
+    @Autowired
+    NewsApiBackend newsApiBackend;
+
+    @Autowired
+    NewsApiMetrics newsApiMetrics;
+
+    // provided by applications with a coordination service; otherwise partitioning is configured statically
+    @Autowired(required = false)
+    NewsApiClusterMembership clusterMembership;
+
     private ExecutorService newsApiV2ThreadPool;
 
+    // follow-up pages of a harvest; each page fetch holds its own concurrency permit, which bounds them
+    private ExecutorService newsApiV2PageExecutor;
+
+    private NewsApiConcurrencyLimiter concurrencyLimiter;
+
+    private NewsApiRetryPolicy retryPolicy;
+
+    private NewsApiCircuitBreaker circuitBreaker;
+
+    private NewsApiPostHasher postHasher;
+
+    private NewsApiHighWaterMarkStore highWaterMarkStore;
+
+    private NewsApiSeenIndex seenIndex;
+
+    private final NewsApiRequestPlanCache requestPlanCache = new NewsApiRequestPlanCache();
+
+    private NewsApiQueryScheduler queryScheduler;
+
+    private NewsApiQueryPartitioner queryPartitioner;
+
+    private static final int DEFAULT_VIRTUAL_CONCURRENCY = 64;
+
+    private static final int DEFAULT_ADAPTIVE_HEADROOM = 4;
+
     @PostConstruct
     public void postConstruct() {
         //
@@ -79,10 +108,92 @@ public class NewsApiImporter implements Importer {
         //
         // thread pool setup
         //
-        int processorCt = Runtime.getRuntime().availableProcessors() - 1;
-        processorCt = processorCt > 0 ? processorCt : 1;
-        log.info("Starting newsapiv2 importer thread pool: processCount={}", processorCt);
-        this.newsApiV2ThreadPool = newFixedThreadPool(processorCt, new ThreadFactoryBuilder().setNameFormat("newsapiv2-importer-%d").build());
+        NewsApiExecutionMode executionMode = ofNullable(this.configProps.getExecutionMode()).orElse(NewsApiExecutionMode.FIXED);
+        int maxConcurrency = this.configProps.getMaxConcurrency();
+        if (executionMode == NewsApiExecutionMode.VIRTUAL) {
+            maxConcurrency = maxConcurrency > 0 ? maxConcurrency : DEFAULT_VIRTUAL_CONCURRENCY;
+            log.info("Starting newsapiv2 importer virtual thread executor: maxConcurrency={}", maxConcurrency);
+            this.newsApiV2ThreadPool = newThreadPerTaskExecutor(Thread.ofVirtual().name("newsapiv2-importer-", 0).factory());
+        } else {
+            int processorCt = Runtime.getRuntime().availableProcessors() - 1;
+            maxConcurrency = maxConcurrency > 0 ? maxConcurrency : (processorCt > 0 ? processorCt : 1);
+            log.info("Starting newsapiv2 importer thread pool: processCount={}", maxConcurrency);
+            this.newsApiV2ThreadPool = newFixedThreadPool(maxConcurrency, new ThreadFactoryBuilder().setNameFormat("newsapiv2-importer-%d").build());
+        }
+        this.newsApiV2PageExecutor = newThreadPerTaskExecutor(Thread.ofVirtual().name("newsapiv2-page-", 0).factory());
+        if (this.configProps.getAdaptiveConcurrency()) {
+            // a fixed pool can't run more requests than it has threads
+            int maxLimit = this.configProps.getAdaptiveConcurrencyMaxLimit();
+            maxLimit = maxLimit > 0 ? maxLimit : maxConcurrency * DEFAULT_ADAPTIVE_HEADROOM;
+            if (executionMode == NewsApiExecutionMode.FIXED) {
+                maxLimit = Math.min(maxLimit, maxConcurrency);
+            }
+            int minLimit = this.configProps.getAdaptiveConcurrencyMinLimit();
+            log.info("NewsAPI V2 adaptive concurrency enabled: minLimit={}, maxLimit={}", minLimit, maxLimit);
+            this.concurrencyLimiter = new NewsApiConcurrencyLimiter(maxConcurrency, minLimit, maxLimit);
+        } else {
+            this.concurrencyLimiter = new NewsApiConcurrencyLimiter(maxConcurrency, maxConcurrency, maxConcurrency);
+        }
+        // the limit adapts to round trips timed by the transport (beneath the response cache and the rate limiter)
+        newsApiMetrics.setUpstreamListener(concurrencyLimiter::onSuccess);
+        newsApiMetrics.gauge("newsapi.importer.requests.limit", "Current limit on requests in flight",
+                concurrencyLimiter, NewsApiConcurrencyLimiter::getLimit);
+        newsApiMetrics.gauge("newsapi.importer.requests.active", "Requests holding a concurrency permit",
+                concurrencyLimiter, NewsApiConcurrencyLimiter::getInFlight);
+        newsApiMetrics.gauge("newsapi.importer.requests.waiting", "Workers waiting for a concurrency permit",
+                concurrencyLimiter, NewsApiConcurrencyLimiter::getWaiting);
+        //
+        // post hash setup
+        //
+        NewsApiHashMode postHashMode = ofNullable(this.configProps.getPostHashMode()).orElse(NewsApiHashMode.COMPATIBLE);
+        log.info("NewsAPI V2 post hash mode: {}", postHashMode);
+        this.postHasher = new NewsApiPostHasher(postHashMode, newsApiMetrics.getHashTimer());
+        //
+        // high-water mark setup
+        //
+        if (this.configProps.getHighWaterMarksEnabled()) {
+            String highWaterMarkFile = this.configProps.getHighWaterMarkFile();
+            log.info("NewsAPI V2 incremental import enabled, highWaterMarkFile={}", highWaterMarkFile);
+            this.highWaterMarkStore = isNotBlank(highWaterMarkFile) ? new FileHighWaterMarkStore(Path.of(highWaterMarkFile)) : new InMemoryHighWaterMarkStore();
+        }
+        //
+        // seen index setup
+        //
+        String seenIndexFile = this.configProps.getSeenIndexFile();
+        if (isNotBlank(seenIndexFile)) {
+            try {
+                this.seenIndex = new NewsApiSeenIndex(Path.of(seenIndexFile), this.configProps.getSeenIndexCapacity(), this.configProps.getSeenIndexRetainGenerations());
+            } catch (IOException e) {
+                log.error("Unable to open seen index {}, continuing without it due to: {}", seenIndexFile, e.getMessage());
+            }
+        }
+        //
+        // retry and circuit breaker setup
+        //
+        this.retryPolicy = new NewsApiRetryPolicy(this.configProps.getMaxRetries(), this.configProps.getRetryBaseDelayMillis(), this.configProps.getRetryMaxDelayMillis());
+        this.circuitBreaker = new NewsApiCircuitBreaker(this.configProps.getCircuitBreakerFailureThreshold(),
+                Duration.ofSeconds(this.configProps.getCircuitBreakerOpenSecs()), Clock.systemUTC());
+        //
+        // query scheduler setup
+        //
+        if (this.configProps.getSchedulerEnabled()) {
+            this.queryScheduler = new NewsApiQueryScheduler(Clock.systemUTC(), Duration.ofSeconds(this.configProps.getSchedulerMaxDeferSecs()));
+        }
+        //
+        // partitioning setup
+        //
+        int partitionNodeCount = this.configProps.getPartitionNodeCount();
+        if (clusterMembership == null && partitionNodeCount > 1) {
+            int partitionNodeId = this.configProps.getPartitionNodeId();
+            if (partitionNodeId < 0 || partitionNodeId >= partitionNodeCount) {
+                throw new IllegalStateException("news.api.partition-node-id must be between 0 and " + (partitionNodeCount - 1) + ", was " + partitionNodeId);
+            }
+            clusterMembership = new StaticClusterMembership(partitionNodeId, partitionNodeCount);
+        }
+        if (clusterMembership != null) {
+            log.info("NewsAPI V2 partitioning enabled: localNodeId={}", clusterMembership.getLocalNodeId());
+            this.queryPartitioner = new NewsApiQueryPartitioner(clusterMembership);
+        }
         //
         // dump source data from /v2/top-headlines/sources on start-up (if debugSources eq true)
         //
@@ -108,47 +219,411 @@ public class NewsApiImporter implements Importer {
         }
     }
 
+    @PreDestroy
+    public void preDestroy() {
+        if (this.newsApiV2ThreadPool != null) {
+            this.newsApiV2ThreadPool.shutdownNow();
+        }
+        if (this.newsApiV2PageExecutor != null) {
+            this.newsApiV2PageExecutor.shutdownNow();
+        }
+        if (this.seenIndex != null) {
+            try {
+                this.seenIndex.close();
+            } catch (IOException e) {
+                log.error("Unable to close seen index due to: {}", e.getMessage());
+            }
+        }
+    }
+
     //
     //
     //
 
     @Override
     public ImportResult doImport(List<QueryDefinition> queryDefinitions, Map<String, FeedDiscoveryInfo> discoveryCache) {
-        Set<StagingPost> importSet = new HashSet<>();
-        List<QueryMetrics> queryMetrics = new ArrayList<>(size(queryDefinitions));
+        return doImport(queryDefinitions, discoveryCache, null);
+    }
+
+    /**
+     * Streaming variant of doImport: the posts of each query are published to the subscriber, in batches, as soon as
+     * the query completes.  Publishing blocks workers while the subscriber is behind (up to the import deadline),
+     * and the subscriber is completed when the import finishes.  The returned ImportResult carries the query metrics
+     * only; with a null subscriber, this is the same as doImport.
+     */
+    public ImportResult doImport(List<QueryDefinition> queryDefinitions, Map<String, FeedDiscoveryInfo> discoveryCache,
+                                 Flow.Subscriber<? super List<StagingPost>> postSubscriber) {
+        Instant deadline = Instant.now().plusSeconds(this.configProps.getImportTimeoutSecs());
+        NewsApiPostPublisher postPublisher = postSubscriber == null ? null :
+                new NewsApiPostPublisher(postSubscriber, this.configProps.getOutputBufferSize(), deadline);
+        try {
+            return doImport(queryDefinitions, deadline, postPublisher);
+        } finally {
+            if (postPublisher != null) {
+                postPublisher.close();
+            }
+        }
+    }
+
+    private ImportResult doImport(List<QueryDefinition> queryDefinitions, Instant deadline, NewsApiPostPublisher postPublisher) {
         if (this.configProps.getDisabled()) {
             log.warn("NewsAPI v2 importer is administratively disabled");
             if (this.configProps.getImportMockData()) {
                 log.warn("NewsAPI v2 importer importing mock records");
-                CountDownLatch latch = new CountDownLatch(size(queryDefinitions));
+                NewsApiImportRun mockRun = new NewsApiImportRun(queryDefinitions, postPublisher, newArticleCatalog());
                 queryDefinitions.forEach(q ->
-                        getArticlesResponseHandler(q, latch, importSet, queryMetrics)
+                        getArticlesResponseHandler(q, mockRun)
                                 .onSuccess(newsApiMockDataGenerator.buildMockResponse(q)));
+                return awaitImport(mockRun, deadline, emptyList());
             }
-            return ImportResult.from(importSet, queryMetrics);
+            return ImportResult.from(new HashSet<>(), new ArrayList<>());
         }
 
         log.info("NewsAPI V2 importer running at {}", Instant.now());
 
+        if (seenIndex != null) {
+            seenIndex.advanceGeneration();
+        }
+
         List<QueryDefinition> supportedQueryDefinitions = queryDefinitions.parallelStream()
                 .filter(q -> supportsQueryType(q.getQueryType()))
                 .toList();
+        // plans and high-water marks are kept for every live query, including those deferred or owned by other nodes
+        Set<Long> liveQueryIds = supportedQueryDefinitions.stream().map(QueryDefinition::getId).collect(toSet());
+        requestPlanCache.retainAll(liveQueryIds);
+        if (highWaterMarkStore != null) {
+            highWaterMarkStore.retainAll(liveQueryIds);
+        }
+        // other nodes import the queries they own
+        if (queryPartitioner != null) {
+            List<QueryDefinition> ownedQueryDefinitions = queryPartitioner.partition(supportedQueryDefinitions, this::getPartitionKey);
+            log.info("NewsAPI V2 partition owns {} of {} queries", ownedQueryDefinitions.size(), supportedQueryDefinitions.size());
+            supportedQueryDefinitions = ownedQueryDefinitions;
+        }
+        // dormant queries sit out until they're due, and aren't part of this run
+        if (queryScheduler != null) {
+            queryScheduler.retainAll(supportedQueryDefinitions.stream().map(QueryDefinition::getId).collect(toSet()));
+            List<QueryDefinition> dueQueryDefinitions = supportedQueryDefinitions.stream().filter(queryScheduler::isDue).toList();
+            log.info("NewsAPI V2 scheduler deferred {} of {} queries", supportedQueryDefinitions.size() - dueQueryDefinitions.size(), supportedQueryDefinitions.size());
+            supportedQueryDefinitions = dueQueryDefinitions;
+        }
 
-        CountDownLatch latch = new CountDownLatch(size(supportedQueryDefinitions));
-        log.info("NewsAPI V2 import latch initialized to: {}", latch.getCount());
-        supportedQueryDefinitions.forEach(q -> newsApiV2ThreadPool.submit(() -> {
-            this.performImport(q, getArticlesResponseHandler(q, latch, importSet, queryMetrics));
-            if (latch.getCount() % 50 == 0) {
-                log.info("NewsApi V2 import latch currently at {}: ", latch.getCount());
-            }
-        }));
+        NewsApiImportRun importRun = new NewsApiImportRun(supportedQueryDefinitions, postPublisher, newArticleCatalog());
+        log.info("NewsAPI V2 import latch initialized to: {}", importRun.getPendingCount());
+        Map<NewsApiRequest, List<QueryDefinition>> importPlan = planImport(supportedQueryDefinitions, importRun);
+        log.info("NewsAPI V2 import plan coalesced {} queries into {} requests", supportedQueryDefinitions.size(), importPlan.size());
+        // requests with the highest expected yield go first (when scheduling), then those that serve the most queries,
+        // so they're the last to be shed if the budget runs out
+        Comparator<Map.Entry<NewsApiRequest, List<QueryDefinition>>> dispatchOrder = comparingInt(e -> -e.getValue().size());
+        if (queryScheduler != null) {
+            dispatchOrder = Comparator.<Map.Entry<NewsApiRequest, List<QueryDefinition>>>comparingDouble(e -> -queryScheduler.getPriority(e.getValue()))
+                    .thenComparing(dispatchOrder);
+        }
+        List<Future<?>> futures = importPlan.entrySet().stream()
+                .sorted(dispatchOrder)
+                .<Future<?>>map(e -> {
+                    long submittedAt = System.nanoTime();
+                    return newsApiV2ThreadPool.submit(() -> {
+                        newsApiMetrics.recordQueueWait(System.nanoTime() - submittedAt);
+                        runRequest(e.getKey(), e.getValue(), importRun, deadline);
+                        if (importRun.getPendingCount() % 50 == 0) {
+                            log.info("NewsApi V2 import latch currently at {}: ", importRun.getPendingCount());
+                        }
+                    });
+                })
+                .toList();
+
+        ImportResult importResult = awaitImport(importRun, deadline, futures);
+        log.info("NewsAPI V2 import converted {} distinct articles", importRun.getArticleCatalog().getConvertedCount());
+        if (importRun.getTimedOutCount() > 0) {
+            newsApiMetrics.recordFailure(NewsApiErrorType.TIMEOUT, importRun.getTimedOutCount());
+        }
+        if (queryScheduler != null) {
+            importRun.recordOutcomes(queryScheduler);
+        }
 
         log.info("NewsAPI V2 importer finished at {}", Instant.now());
+        newsApiBackend.logStats();
+        if (highWaterMarkStore != null) {
+            highWaterMarkStore.flush();
+        }
+        if (seenIndex != null) {
+            seenIndex.flush();
+        }
+
+        return importResult;
+    }
+
+    // streaming imports don't hold on to the articles of completed requests; queries only share the articles of a request
+    private NewsApiArticleCatalog newArticleCatalog() {
+        return new NewsApiArticleCatalog(postHasher, this.configProps.getStreamingImport() ? 0L : this.configProps.getArticleCatalogMaxSize());
+    }
+
+    // group queries by normalized request, so that each distinct request is fetched once per import
+    private Map<NewsApiRequest, List<QueryDefinition>> planImport(List<QueryDefinition> queryDefinitions, NewsApiImportRun importRun) {
+        Map<NewsApiRequest, List<QueryDefinition>> importPlan = new LinkedHashMap<>();
+        for (QueryDefinition q : queryDefinitions) {
+            NewsApiRequestPlanCache.Lookup lookup = requestPlanCache.getPlan(q);
+            NewsApiRequestPlanCache.Plan plan = lookup.plan();
+            if (plan.isValid()) {
+                importPlan.computeIfAbsent(plan.request(), r -> new ArrayList<>()).add(q);
+            } else {
+                // invalid configs are logged when first seen (or changed); after that they're only reported in metrics
+                if (lookup.isNew()) {
+                    log.error("Invalid query configuration, username={}, feedId={}, queryId={} due to: {}",
+                            q.getUsername(), q.getFeedId(), q.getId(), plan.error());
+                }
+                importRun.failure(q, errorMetrics(q, NewsApiErrorType.INVALID_CONFIG, plan.error()));
+            }
+        }
+        return importPlan;
+    }
+
+    // queries that share a request share a partition (and the request is made once); queries that can't be
+    // planned are spread by id
+    private String getPartitionKey(QueryDefinition queryDefinition) {
+        NewsApiRequestPlanCache.Plan plan = requestPlanCache.peekPlan(queryDefinition);
+        return plan.isValid() ? plan.request().toString() : "query-" + queryDefinition.getId();
+    }
+
+    // the worker holds its permit until the request completes (including retries); otherwise the concurrency limit
+    // would only bound dispatch, not requests in flight.  A harvest hands the permit over to its page fetches, which
+    // hold one each, while the worker waits for them
+    private void runRequest(NewsApiRequest request, List<QueryDefinition> queryDefinitions, NewsApiImportRun importRun, Instant deadline) {
+        if (remainingMillis(deadline) == 0L) {
+            return; // reported as timed out when the run closes
+        }
+        try {
+            if (!concurrencyLimiter.tryAcquire(remainingMillis(deadline), MILLISECONDS)) {
+                return; // reported as timed out when the run closes
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        boolean streaming = this.configProps.getStreamingImport();
+        List<StreamingQueryImport> queryImports = streaming ? queryDefinitions.stream()
+                .map(q -> new StreamingQueryImport(q, importRun))
+                .toList() : null;
+        List<NewsApiClient.ArticlesResponseCallback> handlers = streaming ? List.copyOf(queryImports) : queryDefinitions.stream()
+                .map(q -> getArticlesResponseHandler(q, importRun))
+                .toList();
+        boolean permitHeld = true;
+        try {
+            NewsApiRequest incrementalRequest = withIncrementalFrom(request, queryDefinitions);
+            if (streaming) {
+                ArticleResponse envelope = streamPages(incrementalRequest, queryImports, deadline);
+                handlers.forEach(h -> h.onSuccess(envelope));
+                return;
+            }
+            ArticleResponse response = fetchWithRetry(firstPage(incrementalRequest), deadline);
+            int pageCount = pageCount(incrementalRequest, response);
+            if (pageCount > 1) {
+                // stop once a page holds nothing new to the query with the oldest high-water mark, which sets the from
+                QueryDefinition oldest = oldestHighWaterMarkQuery(queryDefinitions);
+                NewsApiArticleCatalog articleCatalog = importRun.getArticleCatalog();
+                NewsApiPageHarvest harvest = new NewsApiPageHarvest(incrementalRequest, pageCount, this.configProps.getEverythingPageWindow(),
+                        page -> fetchPage(incrementalRequest, page, deadline),
+                        a -> postHasher.computeHash(oldest.getFeedId(), articleCatalog.canonicalize(a, null)),
+                        knownHashPredicate(getHighWaterMark(oldest.getId())));
+                concurrencyLimiter.release();
+                permitHeld = false;
+                ArticleResponse merged = harvest.harvest(response, newsApiV2PageExecutor);
+                handlers.forEach(h -> h.onSuccess(merged));
+            } else {
+                handlers.forEach(h -> h.onSuccess(response));
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (!NewsApiErrorType.classify(cause).isSkip()) {
+                errorAggregator.offer(cause);
+            }
+            handlers.forEach(h -> h.onFailure(cause));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (TimeoutException ignored) {
+            // reported as timed out when the run closes
+        } catch (Exception e) {
+            log.error("Import dispatch failure, request={} due to: {}", request, e.getMessage());
+            queryDefinitions.forEach(q -> importRun.failure(q, errorMetrics(q, NewsApiErrorType.OTHER, e.getMessage())));
+        } finally {
+            if (permitHeld) {
+                concurrencyLimiter.release();
+            }
+        }
+    }
+
+    //
+    // pagination (NEWSAPIV2_EVERYTHING only)
+    //
+
+    private static final int DEFAULT_PAGE_SIZE = 100;
+
+    private int getPageSize() {
+        int pageSize = this.configProps.getEverythingPageSize();
+        return pageSize > 0 ? Math.min(pageSize, DEFAULT_PAGE_SIZE) : DEFAULT_PAGE_SIZE;
+    }
+
+    private NewsApiRequest firstPage(NewsApiRequest request) {
+        if (NEWSAPIV2_EVERYTHING.equals(request.queryType()) && this.configProps.getEverythingPageSize() > 0) {
+            return request.withPage(1, getPageSize());
+        }
+        return request;
+    }
+
+    private int pageCount(NewsApiRequest request, ArticleResponse firstPage) {
+        int maxPages = this.configProps.getEverythingMaxPages();
+        if (!NEWSAPIV2_EVERYTHING.equals(request.queryType()) || maxPages <= 1) {
+            return 1;
+        }
+        int pageSize = getPageSize();
+        long availablePages = (firstPage.getTotalResults() + (long) pageSize - 1) / pageSize;
+        return (int) Math.max(1L, Math.min(maxPages, availablePages));
+    }
+
+    // pages run as separate tasks, each under its own concurrency permit; a page due after the deadline isn't fetched
+    private ArticleResponse fetchPage(NewsApiRequest request, int page, Instant deadline) throws Exception {
+        if (remainingMillis(deadline) == 0L || !concurrencyLimiter.tryAcquire(remainingMillis(deadline), MILLISECONDS)) {
+            throw new TimeoutException("Import deadline reached before page " + page + " could be fetched");
+        }
+        try {
+            return fetchWithRetry(request.withPage(page, getPageSize()), deadline);
+        } finally {
+            concurrencyLimiter.release();
+        }
+    }
+
+    private ArticleResponse fetchWithRetry(NewsApiRequest request, Instant deadline) throws ExecutionException, InterruptedException, TimeoutException {
+        return withRetry(request, deadline, r -> fetch(r, deadline));
+    }
 
-        return ImportResult.from(importSet, queryMetrics);
+    private interface RequestAttempt {
+
+        ArticleResponse run(NewsApiRequest request) throws ExecutionException, InterruptedException, TimeoutException;
     }
 
-    private NewsApiClient.ArticlesResponseCallback getArticlesResponseHandler(QueryDefinition queryDefinition, CountDownLatch latch, Set<StagingPost> importSet, List<QueryMetrics> queryMetrics) {
+    // retry transient failures with jittered backoff, as long as the next attempt can start before the deadline
+    private ArticleResponse withRetry(NewsApiRequest request, Instant deadline, RequestAttempt requestAttempt) throws ExecutionException, InterruptedException, TimeoutException {
+        for (int attempt = 0; ; attempt++) {
+            if (!circuitBreaker.tryAcquire()) {
+                throw new ExecutionException(new NewsApiQueryException(NewsApiErrorType.CIRCUIT_OPEN, "Circuit breaker is open"));
+            }
+            long startNanos = System.nanoTime();
+            try {
+                ArticleResponse response = requestAttempt.run(request);
+                newsApiMetrics.recordRequest(request.queryType(), "success", System.nanoTime() - startNanos);
+                circuitBreaker.onSuccess();
+                return response;
+            } catch (ExecutionException e) {
+                NewsApiErrorType errorType = NewsApiErrorType.classify(e.getCause());
+                newsApiMetrics.recordRequest(request.queryType(), errorType.name(), System.nanoTime() - startNanos);
+                if (errorType.isUpstreamFailure()) {
+                    circuitBreaker.onFailure();
+                    concurrencyLimiter.onFailure();
+                } else {
+                    circuitBreaker.onIgnored();
+                }
+                long backoffMillis = retryPolicy.backoffMillis(attempt);
+                if (!errorType.isRetryable() || attempt >= retryPolicy.maxRetries() || backoffMillis >= remainingMillis(deadline)) {
+                    throw e;
+                }
+                log.info("Retrying request in {}ms, attempt={}, errorType={}, request={}", backoffMillis, attempt + 1, errorType, request);
+                Thread.sleep(backoffMillis);
+            } catch (TimeoutException e) {
+                newsApiMetrics.recordRequest(request.queryType(), NewsApiErrorType.TIMEOUT.name(), System.nanoTime() - startNanos);
+                circuitBreaker.onIgnored();
+                concurrencyLimiter.onFailure();
+                throw e;
+            }
+        }
+    }
+
+    // the client completes requests on its own threads; block until the callback fires
+    private ArticleResponse fetch(NewsApiRequest request, Instant deadline) throws ExecutionException, InterruptedException, TimeoutException {
+        CompletableFuture<ArticleResponse> response = new CompletableFuture<>();
+        this.performImport(request, deadline, completing(response));
+        ArticleResponse articleResponse = await(response, deadline);
+        newsApiMetrics.recordArticles(request.queryType(), articleResponse.getArticles().size());
+        return articleResponse;
+    }
+
+    private ArticleResponse stream(NewsApiRequest request, NewsApiArticleStream articleStream, Instant deadline) throws ExecutionException, InterruptedException, TimeoutException {
+        CompletableFuture<ArticleResponse> envelope = new CompletableFuture<>();
+        AtomicInteger articleCt = new AtomicInteger();
+        log.info("Importing (streaming) request={}", request);
+        this.newsApiBackend.streamArticles(request, deadline, (article, canonicalJson) -> {
+            articleCt.incrementAndGet();
+            articleStream.onArticle(article, canonicalJson);
+        }, completing(envelope));
+        ArticleResponse articleResponse = await(envelope, deadline);
+        newsApiMetrics.recordArticles(request.queryType(), articleCt.get());
+        return articleResponse;
+    }
+
+    // a request the backend couldn't send before the deadline is reported as timed out, like one that didn't complete
+    private static ArticleResponse await(CompletableFuture<ArticleResponse> response, Instant deadline) throws ExecutionException, InterruptedException, TimeoutException {
+        try {
+            return response.get(remainingMillis(deadline), MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TimeoutException timeout) {
+                throw timeout;
+            }
+            throw e;
+        }
+    }
+
+    private static NewsApiClient.ArticlesResponseCallback completing(CompletableFuture<ArticleResponse> future) {
+        return new NewsApiClient.ArticlesResponseCallback() {
+            @Override
+            public void onSuccess(ArticleResponse articleResponse) {
+                future.complete(articleResponse);
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                future.completeExceptionally(throwable);
+            }
+        };
+    }
+
+    // streamed pages are fetched one after another by the same worker, so that at most one article per request is
+    // held at a time; a later page failing (or adding nothing new) ends the harvest with the pages streamed so far
+    private ArticleResponse streamPages(NewsApiRequest request, List<StreamingQueryImport> queryImports, Instant deadline) throws ExecutionException, InterruptedException, TimeoutException {
+        NewsApiArticleStream articleStream = (article, canonicalJson) -> queryImports.forEach(i -> i.onArticle(article, canonicalJson));
+        ArticleResponse envelope = withRetry(firstPage(request), deadline, r -> stream(r, articleStream, deadline));
+        int pageCount = pageCount(request, envelope);
+        for (int page = 2; page <= pageCount; page++) {
+            int importCt = queryImports.stream().mapToInt(StreamingQueryImport::size).sum();
+            try {
+                withRetry(request.withPage(page, getPageSize()), deadline, r -> stream(r, articleStream, deadline));
+            } catch (ExecutionException | TimeoutException e) {
+                log.warn("Page harvest ended at page={} of {}, request={} due to: {}", page, pageCount, request, e.getMessage());
+                break;
+            }
+            if (queryImports.stream().mapToInt(StreamingQueryImport::size).sum() == importCt) {
+                break;
+            }
+        }
+        return envelope;
+    }
+
+    private static long remainingMillis(Instant deadline) {
+        return Math.max(0L, Duration.between(Instant.now(), deadline).toMillis());
+    }
+
+    private ImportResult awaitImport(NewsApiImportRun importRun, Instant deadline, List<Future<?>> futures) {
+        try {
+            return importRun.await(Duration.ofMillis(remainingMillis(deadline)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return importRun.close();
+        } finally {
+            // queries still queued or waiting on a permit at the deadline aren't going to be counted, so stop them
+            futures.forEach(f -> f.cancel(true));
+        }
+    }
+
+    private NewsApiClient.ArticlesResponseCallback getArticlesResponseHandler(QueryDefinition queryDefinition, NewsApiImportRun importRun) {
         return new NewsApiClient.ArticlesResponseCallback() {
             @Override
             public void onSuccess(ArticleResponse response) {
@@ -159,38 +634,207 @@ public class NewsApiImporter implements Importer {
                 String username = queryDefinition.getUsername();
                 String queryType = queryDefinition.getQueryType();
                 try {
-                    AtomicInteger importCt = new AtomicInteger(0);
-                    importArticleResponse(feedId, queryId, queryText, response, username, importTimestamp).forEach(s -> {
-                        log.debug("Adding post hash={} to queue for feedId={}, queryId={}, username={}", s.getPostHash(), feedId, queryId, username);
-                        importSet.add(s);
-                        importCt.getAndIncrement();
-                    });
+                    NewsApiHighWaterMark highWaterMark = getHighWaterMark(queryId);
+                    long startNanos = System.nanoTime();
+                    Set<StagingPost> stagingPosts = importArticleResponse(postHasher, importRun.getArticleCatalog(), feedId, queryId, queryText, response,
+                            username, importTimestamp, knownHashPredicate(highWaterMark));
+                    newsApiMetrics.recordConversion(System.nanoTime() - startNanos);
+                    stagingPosts.forEach(s ->
+                        log.debug("Adding post hash={} to queue for feedId={}, queryId={}, username={}", s.getPostHash(), feedId, queryId, username));
                     // update query metrics
-                    queryMetrics.add(QueryMetrics.from(
+                    boolean accepted = importRun.success(queryDefinition, stagingPosts, QueryMetrics.from(
                             queryDefinition.getId(),
                             importTimestamp,
-                            importCt.intValue()));
+                            stagingPosts.size()));
+                    // only advance the high-water mark if these posts are actually part of the import result
+                    if (accepted) {
+                        updateHighWaterMark(queryId, highWaterMark, latestPublishedAt(response),
+                                stagingPosts.stream().map(StagingPost::getPostHash).toList());
+                        if (seenIndex != null) {
+                            stagingPosts.forEach(s -> seenIndex.add(s.getPostHash()));
+                        }
+                    }
                     log.info("Import success, username={}, feedId={}, queryId={}, queryType={}, queryText={}, importCt={}",
-                            username, feedId, queryId, queryType, queryText, importCt.intValue());
-                    latch.countDown();
+                            username, feedId, queryId, queryType, queryText, stagingPosts.size());
                 } catch (Exception e) {
                     log.error("Import failure, username={}, feedId={}, queryId={}, queryType={}, queryText={} due to: {}",
                             username, feedId, queryId, queryType, queryText, e.getMessage());
+                    importRun.failure(queryDefinition, errorMetrics(queryDefinition, NewsApiErrorType.OTHER, e.getMessage()));
                 }
             }
 
             @Override
             public void onFailure(Throwable throwable) {
-                errorAggregator.offer(throwable);
-                QueryMetrics qm = QueryMetrics.from(queryDefinition.getId(), new Date(), 0);
-                qm.setErrorType(QueryMetrics.QueryExceptionType.OTHER);
-                qm.setErrorDetail(throwable.getMessage());
-                queryMetrics.add(qm);
-                latch.countDown();
+                importRun.failure(queryDefinition, errorMetrics(queryDefinition, NewsApiErrorType.classify(throwable), throwable.getMessage()));
             }
         };
     }
 
+    // converts articles to staging posts as they're decoded; completing it (onSuccess) reports the query's result
+    private class StreamingQueryImport implements NewsApiArticleStream, NewsApiClient.ArticlesResponseCallback {
+
+        private final QueryDefinition queryDefinition;
+
+        private final NewsApiImportRun importRun;
+
+        private final NewsApiHighWaterMark highWaterMark;
+
+        private final Predicate<String> isKnownHash;
+
+        private final Date importTimestamp = new Date();
+
+        // keyed by post hash, so that an article repeated across pages (or a retried page) is only imported once
+        private final Map<String, StagingPost> stagingPosts = new LinkedHashMap<>();
+
+        private Instant latestPublishedAt;
+
+        private Exception importFailure;
+
+        private long conversionNanos;
+
+        StreamingQueryImport(QueryDefinition queryDefinition, NewsApiImportRun importRun) {
+            this.queryDefinition = queryDefinition;
+            this.importRun = importRun;
+            this.highWaterMark = getHighWaterMark(queryDefinition.getId());
+            this.isKnownHash = knownHashPredicate(highWaterMark);
+        }
+
+        @Override
+        public void onArticle(Article article, String canonicalJson) {
+            if (importFailure != null) {
+                return;
+            }
+            long startNanos = System.nanoTime();
+            try {
+                NewsApiCanonicalArticle canonicalArticle = importRun.getArticleCatalog().canonicalize(article, canonicalJson);
+                Instant publishedAt = canonicalArticle.publishedAt();
+                if (publishedAt != null && (latestPublishedAt == null || publishedAt.isAfter(latestPublishedAt))) {
+                    latestPublishedAt = publishedAt;
+                }
+                String postHash = postHasher.computeHash(queryDefinition.getFeedId(), canonicalArticle);
+                // skip articles imported by an earlier run
+                if (stagingPosts.containsKey(postHash) || (isKnownHash != null && isKnownHash.test(postHash))) {
+                    return;
+                }
+                stagingPosts.put(postHash, toStagingPost(queryDefinition.getFeedId(), queryDefinition.getId(), queryDefinition.getQueryText(),
+                        canonicalArticle, postHash, queryDefinition.getUsername(), importTimestamp));
+            } catch (Exception e) {
+                importFailure = e;
+            } finally {
+                conversionNanos += System.nanoTime() - startNanos;
+            }
+        }
+
+        int size() {
+            return stagingPosts.size();
+        }
+
+        @Override
+        public void onSuccess(ArticleResponse envelope) {
+            Long feedId = queryDefinition.getFeedId();
+            Long queryId = queryDefinition.getId();
+            String username = queryDefinition.getUsername();
+            String queryType = queryDefinition.getQueryType();
+            String queryText = queryDefinition.getQueryText();
+            if (importFailure != null) {
+                log.error("Import failure, username={}, feedId={}, queryId={}, queryType={}, queryText={} due to: {}",
+                        username, feedId, queryId, queryType, queryText, importFailure.getMessage());
+                importRun.failure(queryDefinition, errorMetrics(queryDefinition, NewsApiErrorType.OTHER, importFailure.getMessage()));
+                return;
+            }
+            newsApiMetrics.recordConversion(conversionNanos);
+            Set<StagingPost> posts = new HashSet<>(stagingPosts.values());
+            boolean accepted = importRun.success(queryDefinition, posts, QueryMetrics.from(queryId, importTimestamp, posts.size()));
+            // only advance the high-water mark if these posts are actually part of the import result
+            if (accepted) {
+                updateHighWaterMark(queryId, highWaterMark, latestPublishedAt, stagingPosts.keySet());
+                if (seenIndex != null) {
+                    stagingPosts.keySet().forEach(seenIndex::add);
+                }
+            }
+            log.info("Import success, username={}, feedId={}, queryId={}, queryType={}, queryText={}, importCt={}",
+                    username, feedId, queryId, queryType, queryText, posts.size());
+        }
+
+        @Override
+        public void onFailure(Throwable throwable) {
+            importRun.failure(queryDefinition, errorMetrics(queryDefinition, NewsApiErrorType.classify(throwable), throwable.getMessage()));
+        }
+    }
+
+    //
+    // incremental import (high-water marks)
+    //
+
+    private NewsApiHighWaterMark getHighWaterMark(Long queryId) {
+        return highWaterMarkStore != null ? highWaterMarkStore.get(queryId) : null;
+    }
+
+    private void updateHighWaterMark(Long queryId, NewsApiHighWaterMark highWaterMark, Instant latestPublishedAt, Collection<String> newHashes) {
+        if (highWaterMarkStore == null) {
+            return;
+        }
+        highWaterMarkStore.put(queryId, ofNullable(highWaterMark).orElseGet(NewsApiHighWaterMark::empty)
+                .advance(latestPublishedAt, newHashes, this.configProps.getHighWaterMarkMaxHashes()));
+    }
+
+    private static Instant latestPublishedAt(ArticleResponse response) {
+        Instant latestPublishedAt = null;
+        for (Article a : response.getArticles()) {
+            Date publishedAt = NewsApiPublishDateParser.parse(a.getPublishedAt());
+            if (publishedAt != null && (latestPublishedAt == null || publishedAt.toInstant().isAfter(latestPublishedAt))) {
+                latestPublishedAt = publishedAt.toInstant();
+            }
+        }
+        return latestPublishedAt;
+    }
+
+    // articles are known if the query's high-water mark or the seen index has their post hash
+    private Predicate<String> knownHashPredicate(NewsApiHighWaterMark highWaterMark) {
+        Predicate<String> isKnownHash = highWaterMark == null ? null : highWaterMark::isKnown;
+        if (seenIndex != null) {
+            isKnownHash = isKnownHash == null ? seenIndex::contains : isKnownHash.or(seenIndex::contains);
+        }
+        return isKnownHash;
+    }
+
+    // only fetch articles published since the oldest high-water mark among the queries sharing the request
+    private NewsApiRequest withIncrementalFrom(NewsApiRequest request, List<QueryDefinition> queryDefinitions) {
+        if (highWaterMarkStore == null || !NEWSAPIV2_EVERYTHING.equals(request.queryType())) {
+            return request;
+        }
+        NewsApiHighWaterMark highWaterMark = highWaterMarkStore.get(oldestHighWaterMarkQuery(queryDefinitions).getId());
+        if (highWaterMark == null || highWaterMark.latestPublishedAt() == null) {
+            return request;
+        }
+        return request.withFrom(ISO_LOCAL_DATE_TIME.format(LocalDateTime.ofInstant(highWaterMark.latestPublishedAt(), ZoneOffset.UTC).truncatedTo(SECONDS)));
+    }
+
+    // the query sharing the request whose high-water mark is the oldest; a query without one yet is the oldest
+    private QueryDefinition oldestHighWaterMarkQuery(List<QueryDefinition> queryDefinitions) {
+        QueryDefinition oldest = null;
+        Instant from = null;
+        for (QueryDefinition q : queryDefinitions) {
+            NewsApiHighWaterMark highWaterMark = getHighWaterMark(q.getId());
+            if (highWaterMark == null || highWaterMark.latestPublishedAt() == null) {
+                return q;
+            }
+            if (from == null || highWaterMark.latestPublishedAt().isBefore(from)) {
+                oldest = q;
+                from = highWaterMark.latestPublishedAt();
+            }
+        }
+        return oldest;
+    }
+
+    private QueryMetrics errorMetrics(QueryDefinition queryDefinition, NewsApiErrorType errorType, String errorDetail) {
+        newsApiMetrics.recordFailure(errorType, 1);
+        QueryMetrics qm = QueryMetrics.from(queryDefinition.getId(), new Date(), 0);
+        qm.setErrorType(QueryMetrics.QueryExceptionType.OTHER);
+        qm.setErrorDetail(errorType.toErrorDetail(errorDetail));
+        return qm;
+    }
+
     //
     //
     //
@@ -207,76 +851,10 @@ public class NewsApiImporter implements Importer {
             NEWSAPIV2_EVERYTHING, NEWSAPIV2_HEADLINES
     };
 
-    private static String getStringProperty(JsonObject obj, String propName) {
-        return obj != null && obj.has(propName) ? obj.get(propName).getAsString() : null;
-    }
-
-    private static JsonArray getArrayProperty(JsonObject obj, @SuppressWarnings("SameParameterValue") String propName) {
-        return obj != null && obj.has(propName) ? obj.get(propName).getAsJsonArray() : null;
-    }
-
-    private static final Type NEWSAPI_SOURCES_TYPE = new TypeToken<List<NewsApiSources>>() {}.getType();
-
-    // import according to params defined by newsApiImportConfig, and build staging posts tagged w/feedIdent
-    private void performImport(QueryDefinition queryDefinition, NewsApiClient.ArticlesResponseCallback articleResponseHandler) {
-        String username = queryDefinition.getUsername();
-        Long feedId = queryDefinition.getFeedId();
-        log.info("Importing feedId={}, username={}, queryDefinition={}", feedId, username, queryDefinition);
-        // query expression
-        String queryText = queryDefinition.getQueryText();
-        // query sources
-        JsonObject queryConfigObj = ofNullable(queryDefinition.getQueryConfig())
-                .map(Object::toString)
-                .map(s -> GSON.fromJson(s, JsonObject.class))
-                .orElse(null);
-        List<NewsApiSources> sources = null;
-        JsonArray sourcesArr = getArrayProperty(queryConfigObj, "sources");
-        if (sourcesArr != null) {
-            sources = GSON.fromJson(sourcesArr, NEWSAPI_SOURCES_TYPE);
-        }
-        // query language (ar de en es fr he it nl no pt ru sv ud zh)
-        String queryLanguage = getStringProperty(queryConfigObj, "language");
-
-        switch (queryDefinition.getQueryType()) {
-            case NEWSAPIV2_EVERYTHING -> {
-                EverythingRequest.Builder builder = new EverythingRequest.Builder();
-                if (isNotBlank(queryText)) {
-                    builder.q(queryText);
-                }
-                if (isNotBlank(queryLanguage)) {
-                    builder.language(NewsApiLanguages.valueOf(queryLanguage).code);
-                }
-                if (isNotEmpty(sources)) {
-                    builder.sources(sources.stream().map(s -> s.name).collect(joining(",")));
-                }
-                newsApiClient.getEverything(builder.build(), articleResponseHandler);
-            }
-            case NEWSAPIV2_HEADLINES -> {
-                TopHeadlinesRequest.Builder builder = new TopHeadlinesRequest.Builder();
-                if (isNotBlank(queryText)) {
-                    builder.q(queryText);
-                }
-                if (isNotBlank(queryLanguage)) {
-                    builder.language(NewsApiLanguages.valueOf(queryLanguage).code);
-                }
-                if (isNotEmpty(sources)) {
-                    builder.sources(sources.stream().map(s -> s.name).collect(joining(",")));
-                } else {
-                    // query country
-                    String queryCountry = getStringProperty(queryConfigObj, "country");
-                    if (isNotBlank(queryCountry)) {
-                        builder.country(NewsApiCountries.valueOf(queryCountry).code);
-                    }
-                    // query category (business, entertainment, general, health, science, sports, technology)
-                    String queryCategory = getStringProperty(queryConfigObj, "category");
-                    if (isNotBlank(queryCategory)) {
-                        builder.category(NewsApiCategories.valueOf(queryCategory).name);
-                    }
-                }
-                this.newsApiClient.getTopHeadlines(builder.build(), articleResponseHandler);
-            }
-            default -> log.error("Query type not supported by this importer: queryType={}, importerId={}", queryDefinition.getQueryType(), getImporterId());
-        }
+    // import according to the normalized request params; the response handler builds the staging posts
+    private void performImport(NewsApiRequest request, Instant deadline, NewsApiClient.ArticlesResponseCallback articleResponseHandler) {
+        log.info("Importing request={}", request);
+        this.newsApiBackend.getArticles(request, deadline, articleResponseHandler);
     }
 
     @Override
@@ -286,44 +864,24 @@ public class NewsApiImporter implements Importer {
 
     private static final String NEWS_API_V2_IMPORTER_ID = "NewsApiV2";
 
-    private static Set<StagingPost> importArticleResponse(Long feedId, Long queryId, String query, ArticleResponse articleResponse, String username, Date importTimestamp) throws NoSuchAlgorithmException {
+    static Set<StagingPost> importArticleResponse(NewsApiPostHasher postHasher, Long feedId, Long queryId, String query, ArticleResponse articleResponse, String username, Date importTimestamp,
+                                                  Predicate<String> isKnownHash) {
+        return importArticleResponse(postHasher, new NewsApiArticleCatalog(postHasher, 0L), feedId, queryId, query, articleResponse, username, importTimestamp, isKnownHash);
+    }
+
+    static Set<StagingPost> importArticleResponse(NewsApiPostHasher postHasher, NewsApiArticleCatalog articleCatalog, Long feedId, Long queryId, String query,
+                                                  ArticleResponse articleResponse, String username, Date importTimestamp, Predicate<String> isKnownHash) {
         Set<StagingPost> stagingPosts = new HashSet<>();
-        MessageDigest md = MessageDigest.getInstance("MD5");
         for (Article a : articleResponse.getArticles()) {
-            // generate contents
-            List<ContentObject> articleContents = null;
-            String contentStr = a.getContent();
-            if (isNotBlank(contentStr)) {
-                articleContents = singletonList(ContentObject.from("text", contentStr));
+            // articles already converted for another query are reused
+            NewsApiCanonicalArticle canonicalArticle = articleCatalog.canonicalize(a, null);
+            String postHash = postHasher.computeHash(feedId, canonicalArticle);
+            // skip articles imported by an earlier run
+            if (isKnownHash != null && isKnownHash.test(postHash)) {
+                continue;
             }
             // generate staging post
-            StagingPost p = StagingPost.from(
-                    NEWS_API_V2_IMPORTER_ID, // importer Id
-                    feedId, // feed Id
-                    getImporterDesc(query), // importer desc
-                    queryId,
-                    ContentObject.from("text", a.getTitle()), // post title
-                    ContentObject.from("text", a.getDescription()), // post description
-                    articleContents, // post_contents
-                    null, // post_media
-                    null, // post_itunes
-                    a.getUrl(), // post url
-                    null, // post urls
-                    a.getUrlToImage(), // post img url
-                    // no img transport ident
-                    importTimestamp, // import timestamp
-                    computeHash(md, feedId, getObjectSrc(a)), // post hash
-                    username, // post username
-                    null, // post comment
-                    null, // post rights
-                    null, // contributors
-                    getAuthors(a), // authors
-                    getPostCategories(a), // post categories
-                    toTimestamp(a.getPublishedAt()), // publish timestamp
-                    null, // expiration timestamp
-                    null, // enclosures
-                    null // last updated timestamp
-            );
+            StagingPost p = toStagingPost(feedId, queryId, query, canonicalArticle, postHash, username, importTimestamp);
             // accumulate staging posts
             stagingPosts.add(p);
         }
@@ -331,40 +889,55 @@ public class NewsApiImporter implements Importer {
         return stagingPosts;
     }
 
-    private static String getImporterDesc(String query) {
-        return trimToEmpty(query);
-    }
-
-    private static Serializable getObjectSrc(Article article) {
-        JsonElement objectSrc = GSON.toJsonTree(article);
-        if (objectSrc.isJsonObject()) {
-            return objectSrc.toString();
+    static StagingPost toStagingPost(Long feedId, Long queryId, String query, NewsApiCanonicalArticle a, String postHash, String username, Date importTimestamp) {
+        // generate contents
+        List<ContentObject> articleContents = null;
+        if (isNotBlank(a.content())) {
+            articleContents = singletonList(ContentObject.from("text", a.content()));
         }
-
-        return null;
+        // generate staging post
+        return StagingPost.from(
+                NEWS_API_V2_IMPORTER_ID, // importer Id
+                feedId, // feed Id
+                getImporterDesc(query), // importer desc
+                queryId,
+                ContentObject.from("text", a.title()), // post title
+                ContentObject.from("text", a.description()), // post description
+                articleContents, // post_contents
+                null, // post_media
+                null, // post_itunes
+                a.url(), // post url
+                null, // post urls
+                a.urlToImage(), // post img url
+                // no img transport ident
+                importTimestamp, // import timestamp
+                postHash, // post hash
+                username, // post username
+                null, // post comment
+                null, // post rights
+                null, // contributors
+                getAuthors(a), // authors
+                getPostCategories(a), // post categories
+                a.publishedAt() != null ? Date.from(a.publishedAt()) : null, // publish timestamp
+                null, // expiration timestamp
+                null, // enclosures
+                null // last updated timestamp
+        );
     }
 
-    private static List<String> getPostCategories(Article article) {
-        return ofNullable(article.getSource()).map(Source::getCategory).stream().collect(toList());
+    private static List<String> getPostCategories(NewsApiCanonicalArticle a) {
+        return ofNullable(a.category()).stream().collect(toList());
     }
 
-    private static List<PostPerson> getAuthors(Article article) {
-        return ofNullable(article.getAuthor()).map(author -> {
+    private static List<PostPerson> getAuthors(NewsApiCanonicalArticle a) {
+        return ofNullable(a.author()).map(author -> {
             PostPerson p = new PostPerson();
             p.setName(author);
             return p;
         }).stream().collect(toList());
     }
 
-    private static Date toTimestamp(String str) {
-        DateTimeFormatter f = ISO_INSTANT.withZone(ZoneId.systemDefault());
-        ZonedDateTime zdt = ZonedDateTime.parse(str, f);
-        return Date.from(zdt.toInstant());
-    }
-
-    private static final Gson GSON = new Gson();
-
-    private static String computeHash(MessageDigest md, Long feedId, Serializable objectSrc) {
-        return printHexBinary(md.digest(serialize(String.format("%s:%s", feedId, objectSrc))));
+    private static String getImporterDesc(String query) {
+        return trimToEmpty(query);
     }
 }
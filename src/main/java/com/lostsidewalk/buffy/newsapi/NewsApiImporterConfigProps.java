@@ -3,6 +3,8 @@ package com.lostsidewalk.buffy.newsapi;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.List;
+
 
 @Configuration
 @ConfigurationProperties(prefix = "news.api")
@@ -12,10 +14,100 @@ public class NewsApiImporterConfigProps {
 
     private String key;
 
+    private List<String> keys;
+
     private boolean debugSources;
 
     private boolean importMockData;
 
+    private long importTimeoutSecs = 300;
+
+    private NewsApiBackendType backendType = NewsApiBackendType.LIBRARY;
+
+    private String baseUrl = "https://newsapi.org";
+
+    private long connectTimeoutMillis = 10_000;
+
+    private long requestTimeoutMillis = 30_000;
+
+    private boolean streamingImport;
+
+    private int outputBufferSize = 256;
+
+    private long articleCatalogMaxSize = 10_000;
+
+    private boolean schedulerEnabled;
+
+    private long schedulerMaxDeferSecs = 3600;
+
+    private int partitionNodeId;
+
+    private int partitionNodeCount;
+
+    private int syntheticArticlesPerResponse = 1;
+
+    private int syntheticContentMinChars = 200;
+
+    private int syntheticContentMaxChars = 4000;
+
+    private double syntheticDuplicateRatio;
+
+    private double syntheticUnicodeRatio;
+
+    private double syntheticInvalidFieldRate;
+
+    private long syntheticLatencyMillis;
+
+    private double syntheticFailureRate;
+
+    private NewsApiExecutionMode executionMode = NewsApiExecutionMode.FIXED;
+
+    private int maxConcurrency;
+
+    private boolean adaptiveConcurrency;
+
+    private int adaptiveConcurrencyMinLimit = 1;
+
+    private int adaptiveConcurrencyMaxLimit;
+
+    private long responseCacheTtlSecs;
+
+    private long responseCacheMaxSize = 10_000;
+
+    private double requestsPerSecond;
+
+    private long dailyRequestBudget;
+
+    private int everythingPageSize;
+
+    private int everythingMaxPages = 1;
+
+    private int everythingPageWindow = 4;
+
+    private boolean highWaterMarksEnabled;
+
+    private String highWaterMarkFile;
+
+    private int highWaterMarkMaxHashes = 500;
+
+    private String seenIndexFile;
+
+    private int seenIndexCapacity = 1 << 24;
+
+    private int seenIndexRetainGenerations = 30;
+
+    private NewsApiHashMode postHashMode = NewsApiHashMode.COMPATIBLE;
+
+    private int maxRetries = 2;
+
+    private long retryBaseDelayMillis = 500;
+
+    private long retryMaxDelayMillis = 10_000;
+
+    private int circuitBreakerFailureThreshold = 10;
+
+    private long circuitBreakerOpenSecs = 30;
+
     public boolean getDisabled() {
         return disabled;
     }
@@ -34,6 +126,15 @@ public class NewsApiImporterConfigProps {
         this.key = key;
     }
 
+    public List<String> getKeys() {
+        return keys;
+    }
+
+    @SuppressWarnings("unused")
+    public void setKeys(List<String> keys) {
+        this.keys = keys;
+    }
+
     public boolean getDebugSources() {
         return debugSources;
     }
@@ -51,4 +152,400 @@ public class NewsApiImporterConfigProps {
     public void setImportMockData(boolean importMockData) {
         this.importMockData = importMockData;
     }
+
+    public long getImportTimeoutSecs() {
+        return importTimeoutSecs;
+    }
+
+    @SuppressWarnings("unused")
+    public void setImportTimeoutSecs(long importTimeoutSecs) {
+        this.importTimeoutSecs = importTimeoutSecs;
+    }
+
+    public NewsApiBackendType getBackendType() {
+        return backendType;
+    }
+
+    @SuppressWarnings("unused")
+    public void setBackendType(NewsApiBackendType backendType) {
+        this.backendType = backendType;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    @SuppressWarnings("unused")
+    public void setBaseUrl(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public long getConnectTimeoutMillis() {
+        return connectTimeoutMillis;
+    }
+
+    @SuppressWarnings("unused")
+    public void setConnectTimeoutMillis(long connectTimeoutMillis) {
+        this.connectTimeoutMillis = connectTimeoutMillis;
+    }
+
+    public long getRequestTimeoutMillis() {
+        return requestTimeoutMillis;
+    }
+
+    @SuppressWarnings("unused")
+    public void setRequestTimeoutMillis(long requestTimeoutMillis) {
+        this.requestTimeoutMillis = requestTimeoutMillis;
+    }
+
+    public boolean getStreamingImport() {
+        return streamingImport;
+    }
+
+    @SuppressWarnings("unused")
+    public void setStreamingImport(boolean streamingImport) {
+        this.streamingImport = streamingImport;
+    }
+
+    public int getOutputBufferSize() {
+        return outputBufferSize;
+    }
+
+    @SuppressWarnings("unused")
+    public void setOutputBufferSize(int outputBufferSize) {
+        this.outputBufferSize = outputBufferSize;
+    }
+
+    public long getArticleCatalogMaxSize() {
+        return articleCatalogMaxSize;
+    }
+
+    @SuppressWarnings("unused")
+    public void setArticleCatalogMaxSize(long articleCatalogMaxSize) {
+        this.articleCatalogMaxSize = articleCatalogMaxSize;
+    }
+
+    public boolean getSchedulerEnabled() {
+        return schedulerEnabled;
+    }
+
+    @SuppressWarnings("unused")
+    public void setSchedulerEnabled(boolean schedulerEnabled) {
+        this.schedulerEnabled = schedulerEnabled;
+    }
+
+    public long getSchedulerMaxDeferSecs() {
+        return schedulerMaxDeferSecs;
+    }
+
+    @SuppressWarnings("unused")
+    public void setSchedulerMaxDeferSecs(long schedulerMaxDeferSecs) {
+        this.schedulerMaxDeferSecs = schedulerMaxDeferSecs;
+    }
+
+    public int getPartitionNodeId() {
+        return partitionNodeId;
+    }
+
+    @SuppressWarnings("unused")
+    public void setPartitionNodeId(int partitionNodeId) {
+        this.partitionNodeId = partitionNodeId;
+    }
+
+    public int getPartitionNodeCount() {
+        return partitionNodeCount;
+    }
+
+    @SuppressWarnings("unused")
+    public void setPartitionNodeCount(int partitionNodeCount) {
+        this.partitionNodeCount = partitionNodeCount;
+    }
+
+    public int getSyntheticArticlesPerResponse() {
+        return syntheticArticlesPerResponse;
+    }
+
+    @SuppressWarnings("unused")
+    public void setSyntheticArticlesPerResponse(int syntheticArticlesPerResponse) {
+        this.syntheticArticlesPerResponse = syntheticArticlesPerResponse;
+    }
+
+    public int getSyntheticContentMinChars() {
+        return syntheticContentMinChars;
+    }
+
+    @SuppressWarnings("unused")
+    public void setSyntheticContentMinChars(int syntheticContentMinChars) {
+        this.syntheticContentMinChars = syntheticContentMinChars;
+    }
+
+    public int getSyntheticContentMaxChars() {
+        return syntheticContentMaxChars;
+    }
+
+    @SuppressWarnings("unused")
+    public void setSyntheticContentMaxChars(int syntheticContentMaxChars) {
+        this.syntheticContentMaxChars = syntheticContentMaxChars;
+    }
+
+    public double getSyntheticDuplicateRatio() {
+        return syntheticDuplicateRatio;
+    }
+
+    @SuppressWarnings("unused")
+    public void setSyntheticDuplicateRatio(double syntheticDuplicateRatio) {
+        this.syntheticDuplicateRatio = syntheticDuplicateRatio;
+    }
+
+    public double getSyntheticUnicodeRatio() {
+        return syntheticUnicodeRatio;
+    }
+
+    @SuppressWarnings("unused")
+    public void setSyntheticUnicodeRatio(double syntheticUnicodeRatio) {
+        this.syntheticUnicodeRatio = syntheticUnicodeRatio;
+    }
+
+    public double getSyntheticInvalidFieldRate() {
+        return syntheticInvalidFieldRate;
+    }
+
+    @SuppressWarnings("unused")
+    public void setSyntheticInvalidFieldRate(double syntheticInvalidFieldRate) {
+        this.syntheticInvalidFieldRate = syntheticInvalidFieldRate;
+    }
+
+    public long getSyntheticLatencyMillis() {
+        return syntheticLatencyMillis;
+    }
+
+    @SuppressWarnings("unused")
+    public void setSyntheticLatencyMillis(long syntheticLatencyMillis) {
+        this.syntheticLatencyMillis = syntheticLatencyMillis;
+    }
+
+    public double getSyntheticFailureRate() {
+        return syntheticFailureRate;
+    }
+
+    @SuppressWarnings("unused")
+    public void setSyntheticFailureRate(double syntheticFailureRate) {
+        this.syntheticFailureRate = syntheticFailureRate;
+    }
+
+    public NewsApiExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    @SuppressWarnings("unused")
+    public void setExecutionMode(NewsApiExecutionMode executionMode) {
+        this.executionMode = executionMode;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    @SuppressWarnings("unused")
+    public void setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    public boolean getAdaptiveConcurrency() {
+        return adaptiveConcurrency;
+    }
+
+    @SuppressWarnings("unused")
+    public void setAdaptiveConcurrency(boolean adaptiveConcurrency) {
+        this.adaptiveConcurrency = adaptiveConcurrency;
+    }
+
+    public int getAdaptiveConcurrencyMinLimit() {
+        return adaptiveConcurrencyMinLimit;
+    }
+
+    @SuppressWarnings("unused")
+    public void setAdaptiveConcurrencyMinLimit(int adaptiveConcurrencyMinLimit) {
+        this.adaptiveConcurrencyMinLimit = adaptiveConcurrencyMinLimit;
+    }
+
+    public int getAdaptiveConcurrencyMaxLimit() {
+        return adaptiveConcurrencyMaxLimit;
+    }
+
+    @SuppressWarnings("unused")
+    public void setAdaptiveConcurrencyMaxLimit(int adaptiveConcurrencyMaxLimit) {
+        this.adaptiveConcurrencyMaxLimit = adaptiveConcurrencyMaxLimit;
+    }
+
+    public long getResponseCacheTtlSecs() {
+        return responseCacheTtlSecs;
+    }
+
+    @SuppressWarnings("unused")
+    public void setResponseCacheTtlSecs(long responseCacheTtlSecs) {
+        this.responseCacheTtlSecs = responseCacheTtlSecs;
+    }
+
+    public long getResponseCacheMaxSize() {
+        return responseCacheMaxSize;
+    }
+
+    @SuppressWarnings("unused")
+    public void setResponseCacheMaxSize(long responseCacheMaxSize) {
+        this.responseCacheMaxSize = responseCacheMaxSize;
+    }
+
+    public double getRequestsPerSecond() {
+        return requestsPerSecond;
+    }
+
+    @SuppressWarnings("unused")
+    public void setRequestsPerSecond(double requestsPerSecond) {
+        this.requestsPerSecond = requestsPerSecond;
+    }
+
+    public long getDailyRequestBudget() {
+        return dailyRequestBudget;
+    }
+
+    @SuppressWarnings("unused")
+    public void setDailyRequestBudget(long dailyRequestBudget) {
+        this.dailyRequestBudget = dailyRequestBudget;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    @SuppressWarnings("unused")
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    public long getRetryBaseDelayMillis() {
+        return retryBaseDelayMillis;
+    }
+
+    @SuppressWarnings("unused")
+    public void setRetryBaseDelayMillis(long retryBaseDelayMillis) {
+        this.retryBaseDelayMillis = retryBaseDelayMillis;
+    }
+
+    public long getRetryMaxDelayMillis() {
+        return retryMaxDelayMillis;
+    }
+
+    @SuppressWarnings("unused")
+    public void setRetryMaxDelayMillis(long retryMaxDelayMillis) {
+        this.retryMaxDelayMillis = retryMaxDelayMillis;
+    }
+
+    public int getCircuitBreakerFailureThreshold() {
+        return circuitBreakerFailureThreshold;
+    }
+
+    @SuppressWarnings("unused")
+    public void setCircuitBreakerFailureThreshold(int circuitBreakerFailureThreshold) {
+        this.circuitBreakerFailureThreshold = circuitBreakerFailureThreshold;
+    }
+
+    public long getCircuitBreakerOpenSecs() {
+        return circuitBreakerOpenSecs;
+    }
+
+    @SuppressWarnings("unused")
+    public void setCircuitBreakerOpenSecs(long circuitBreakerOpenSecs) {
+        this.circuitBreakerOpenSecs = circuitBreakerOpenSecs;
+    }
+
+    public NewsApiHashMode getPostHashMode() {
+        return postHashMode;
+    }
+
+    @SuppressWarnings("unused")
+    public void setPostHashMode(NewsApiHashMode postHashMode) {
+        this.postHashMode = postHashMode;
+    }
+
+    public int getEverythingPageSize() {
+        return everythingPageSize;
+    }
+
+    @SuppressWarnings("unused")
+    public void setEverythingPageSize(int everythingPageSize) {
+        this.everythingPageSize = everythingPageSize;
+    }
+
+    public int getEverythingMaxPages() {
+        return everythingMaxPages;
+    }
+
+    @SuppressWarnings("unused")
+    public void setEverythingMaxPages(int everythingMaxPages) {
+        this.everythingMaxPages = everythingMaxPages;
+    }
+
+    public int getEverythingPageWindow() {
+        return everythingPageWindow;
+    }
+
+    @SuppressWarnings("unused")
+    public void setEverythingPageWindow(int everythingPageWindow) {
+        this.everythingPageWindow = everythingPageWindow;
+    }
+
+    public boolean getHighWaterMarksEnabled() {
+        return highWaterMarksEnabled;
+    }
+
+    @SuppressWarnings("unused")
+    public void setHighWaterMarksEnabled(boolean highWaterMarksEnabled) {
+        this.highWaterMarksEnabled = highWaterMarksEnabled;
+    }
+
+    public String getHighWaterMarkFile() {
+        return highWaterMarkFile;
+    }
+
+    @SuppressWarnings("unused")
+    public void setHighWaterMarkFile(String highWaterMarkFile) {
+        this.highWaterMarkFile = highWaterMarkFile;
+    }
+
+    public int getHighWaterMarkMaxHashes() {
+        return highWaterMarkMaxHashes;
+    }
+
+    @SuppressWarnings("unused")
+    public void setHighWaterMarkMaxHashes(int highWaterMarkMaxHashes) {
+        this.highWaterMarkMaxHashes = highWaterMarkMaxHashes;
+    }
+
+    public String getSeenIndexFile() {
+        return seenIndexFile;
+    }
+
+    @SuppressWarnings("unused")
+    public void setSeenIndexFile(String seenIndexFile) {
+        this.seenIndexFile = seenIndexFile;
+    }
+
+    public int getSeenIndexCapacity() {
+        return seenIndexCapacity;
+    }
+
+    @SuppressWarnings("unused")
+    public void setSeenIndexCapacity(int seenIndexCapacity) {
+        this.seenIndexCapacity = seenIndexCapacity;
+    }
+
+    public int getSeenIndexRetainGenerations() {
+        return seenIndexRetainGenerations;
+    }
+
+    @SuppressWarnings("unused")
+    public void setSeenIndexRetainGenerations(int seenIndexRetainGenerations) {
+        this.seenIndexRetainGenerations = seenIndexRetainGenerations;
+    }
 }
@@ -0,0 +1,144 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import com.google.common.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongConsumer;
+import java.util.function.ToDoubleFunction;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Importer meters.  Meters are registered with the application's MeterRegistry if there is one; otherwise with an
+ * empty composite registry, which discards everything recorded.
+ */
+class NewsApiMetrics {
+
+    private final MeterRegistry registry;
+
+    private final Timer queueWaitTimer;
+
+    private final Timer conversionTimer;
+
+    private final Timer hashTimer;
+
+    private final Timer rateLimiterWaitTimer;
+
+    private final Timer upstreamTimer;
+
+    private final Timer upstreamBodyTimer;
+
+    // also receives each upstream round trip (the importer's concurrency limiter)
+    private volatile LongConsumer upstreamListener;
+
+    // meters with per-value tags are created on first use
+    private final Map<String, Timer> requestTimers = new ConcurrentHashMap<>();
+
+    private final Map<String, DistributionSummary> articleSummaries = new ConcurrentHashMap<>();
+
+    private final Map<NewsApiErrorType, Counter> failureCounters = new ConcurrentHashMap<>();
+
+    NewsApiMetrics(MeterRegistry registry) {
+        this.registry = registry != null ? registry : new CompositeMeterRegistry();
+        this.queueWaitTimer = Timer.builder("newsapi.importer.queue.wait")
+                .description("Time from submitting a request to the executor until a worker starts it")
+                .publishPercentileHistogram()
+                .register(this.registry);
+        this.conversionTimer = Timer.builder("newsapi.importer.conversion")
+                .description("Time to convert a response into staging posts, per query")
+                .publishPercentileHistogram()
+                .register(this.registry);
+        this.hashTimer = Timer.builder("newsapi.importer.hash")
+                .description("Time to compute a post hash")
+                .register(this.registry);
+        this.rateLimiterWaitTimer = Timer.builder("newsapi.importer.rate.limiter.wait")
+                .description("Time requests were held back by the rate limiter")
+                .register(this.registry);
+        this.upstreamTimer = Timer.builder("newsapi.importer.upstream")
+                .description("Round trip time of successful requests to NewsAPI, excluding cache hits and rate limiter waits")
+                .publishPercentileHistogram()
+                .register(this.registry);
+        this.upstreamBodyTimer = Timer.builder("newsapi.importer.upstream.body")
+                .description("Time to consume the body of a streamed NewsAPI response, including article conversion")
+                .register(this.registry);
+    }
+
+    // outcome is "success", or the NewsApiErrorType of the failure
+    void recordRequest(String queryType, String outcome, long nanos) {
+        requestTimers.computeIfAbsent(queryType + ":" + outcome, k -> Timer.builder("newsapi.importer.request")
+                        .description("NewsAPI request latency, per attempt")
+                        .tag("queryType", queryType)
+                        .tag("outcome", outcome)
+                        .publishPercentileHistogram()
+                        .register(registry))
+                .record(nanos, NANOSECONDS);
+    }
+
+    void recordArticles(String queryType, int articleCt) {
+        articleSummaries.computeIfAbsent(queryType, k -> DistributionSummary.builder("newsapi.importer.response.articles")
+                        .description("Articles per response")
+                        .baseUnit("articles")
+                        .tag("queryType", queryType)
+                        .register(registry))
+                .record(articleCt);
+    }
+
+    void recordQueueWait(long nanos) {
+        queueWaitTimer.record(nanos, NANOSECONDS);
+    }
+
+    void recordConversion(long nanos) {
+        conversionTimer.record(nanos, NANOSECONDS);
+    }
+
+    Timer getHashTimer() {
+        return hashTimer;
+    }
+
+    void recordRateLimiterWait(double waitSecs) {
+        rateLimiterWaitTimer.record((long) (waitSecs * 1_000_000_000L), NANOSECONDS);
+    }
+
+    void recordUpstreamRoundTrip(long nanos) {
+        upstreamTimer.record(nanos, NANOSECONDS);
+        LongConsumer listener = upstreamListener;
+        if (listener != null) {
+            listener.accept(nanos);
+        }
+    }
+
+    void recordUpstreamBody(long nanos) {
+        upstreamBodyTimer.record(nanos, NANOSECONDS);
+    }
+
+    void setUpstreamListener(LongConsumer upstreamListener) {
+        this.upstreamListener = upstreamListener;
+    }
+
+    void recordFailure(NewsApiErrorType errorType, int count) {
+        failureCounters.computeIfAbsent(errorType, t -> Counter.builder("newsapi.importer.query.failures")
+                        .description("Failed queries, by error type")
+                        .tag("type", t.name())
+                        .register(registry))
+                .increment(count);
+    }
+
+    <T> void gauge(String name, String description, T obj, ToDoubleFunction<T> f) {
+        Gauge.builder(name, obj, f)
+                .description(description)
+                .register(registry);
+    }
+
+    // hit/miss/eviction counts, as newsapi.response cache meters
+    void monitorCache(Cache<?, ?> cache) {
+        GuavaCacheMetrics.monitor(registry, cache, "newsapi.response");
+    }
+}
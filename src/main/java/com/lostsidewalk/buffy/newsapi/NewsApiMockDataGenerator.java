@@ -5,16 +5,53 @@ import com.kwabenaberko.newsapilib.models.Source;
 import com.kwabenaberko.newsapilib.models.response.ArticleResponse;
 import com.lostsidewalk.buffy.query.QueryDefinition;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
+import static java.time.temporal.ChronoUnit.SECONDS;
 import static java.util.Collections.singletonList;
 
+/**
+ * Mock NewsAPI responses.  The mock import gets a fixed single-article response per feed, so repeated mock imports
+ * stage nothing new.  Load testing (see SyntheticNewsApiBackend) gets randomized responses instead; the
+ * news.api.synthetic-* properties control the number of articles per response, the content size (log-uniform
+ * between the min and max), the share of articles drawn from a pool of stories common to all queries, the share of
+ * non-ASCII words, and the share of articles with an invalid field.
+ */
 @Slf4j
 @Component
 class NewsApiMockDataGenerator {
 
+    @Autowired
+    NewsApiImporterConfigProps configProps;
+
+    // shared stories are generated from their index, so every query (and every import) gets the same content
+    private static final int SHARED_STORY_CT = 1024;
+
+    private static final int WORDS_PER_TITLE = 8;
+
+    private static final int WORDS_PER_DESCRIPTION = 30;
+
+    private static final String ASCII_LETTERS = "abcdefghijklmnopqrstuvwxyz";
+
+    // Latin-1 accented letters, Cyrillic, CJK ideographs, and emoji (supplementary, i.e. surrogate pairs in UTF-16)
+    private static final int[][] UNICODE_RANGES = {
+            { 0x00C0, 0x00FF }, { 0x0430, 0x044F }, { 0x4E00, 0x9FFF }, { 0x1F300, 0x1F5FF }
+    };
+
+    private final Instant sharedStoryEpoch = Instant.now().truncatedTo(SECONDS);
+
+    //
+    // mock import
+    //
+
     ArticleResponse buildMockResponse(QueryDefinition q) {
         Long feedId = q.getFeedId();
         ArticleResponse mockResponse = new ArticleResponse();
@@ -53,4 +90,107 @@ class NewsApiMockDataGenerator {
 
         return mockSource;
     }
+
+    //
+    // synthetic load
+    //
+
+    ArticleResponse buildMockResponse(NewsApiRequest request) {
+        String queryText = request.queryText();
+        Object variant = request.page();
+        int articleCt = Math.max(0, this.configProps.getSyntheticArticlesPerResponse());
+        RandomGenerator random = ThreadLocalRandom.current();
+        List<Article> articles = new ArrayList<>(articleCt);
+        for (int i = 0; i < articleCt; i++) {
+            Article article = random.nextDouble() < this.configProps.getSyntheticDuplicateRatio() ?
+                    buildSharedStory(random.nextInt(SHARED_STORY_CT)) :
+                    buildArticle(random, queryText + "-" + variant, Instant.now().minusSeconds(random.nextInt(86_400)));
+            if (random.nextDouble() < this.configProps.getSyntheticInvalidFieldRate()) {
+                invalidate(article, random);
+            }
+            articles.add(article);
+        }
+        ArticleResponse mockResponse = new ArticleResponse();
+        mockResponse.setStatus("ok");
+        // claim more results than returned, so that pagination has pages to harvest
+        mockResponse.setTotalResults(articleCt * 10);
+        mockResponse.setArticles(articles);
+
+        return mockResponse;
+    }
+
+    private Article buildSharedStory(int index) {
+        return buildArticle(new SplittableRandom(index), "shared-" + index, sharedStoryEpoch.minusSeconds(index));
+    }
+
+    private Article buildArticle(RandomGenerator random, String label, Instant publishedAt) {
+        Article article = new Article();
+        article.setSource(buildSource(random));
+        article.setAuthor("author-" + random.nextInt(1_000));
+        article.setTitle(words(random, WORDS_PER_TITLE));
+        article.setDescription(words(random, WORDS_PER_DESCRIPTION));
+        article.setUrl("https://example.com/" + label + "/" + Long.toHexString(random.nextLong()));
+        article.setUrlToImage("https://example.com/" + label + "/image.jpg");
+        article.setPublishedAt(publishedAt.truncatedTo(SECONDS).toString());
+        article.setContent(content(random));
+
+        return article;
+    }
+
+    private static Source buildSource(RandomGenerator random) {
+        int sourceIdx = random.nextInt(100);
+        Source source = new Source();
+        source.setId("source-" + sourceIdx);
+        source.setName("Source " + sourceIdx);
+
+        return source;
+    }
+
+    // fields the importer has to tolerate: an unparseable date, a missing title or url, a missing source, no content
+    private static void invalidate(Article article, RandomGenerator random) {
+        switch (random.nextInt(5)) {
+            case 0 -> article.setPublishedAt("not-a-date");
+            case 1 -> article.setTitle(null);
+            case 2 -> article.setUrl(null);
+            case 3 -> article.setSource(null);
+            default -> article.setContent(" ");
+        }
+    }
+
+    private String content(RandomGenerator random) {
+        int minChars = Math.max(1, this.configProps.getSyntheticContentMinChars());
+        int maxChars = Math.max(minChars, this.configProps.getSyntheticContentMaxChars());
+        int targetChars = (int) Math.exp(random.nextDouble(Math.log(minChars), Math.log(maxChars) + Math.ulp(Math.log(maxChars))));
+        StringBuilder content = new StringBuilder(targetChars + 16);
+        while (content.length() < targetChars) {
+            appendWord(content, random);
+            content.append(' ');
+        }
+        return content.toString();
+    }
+
+    private String words(RandomGenerator random, int wordCt) {
+        StringBuilder words = new StringBuilder();
+        for (int i = 0; i < wordCt; i++) {
+            if (i > 0) {
+                words.append(' ');
+            }
+            appendWord(words, random);
+        }
+        return words.toString();
+    }
+
+    private void appendWord(StringBuilder sb, RandomGenerator random) {
+        int length = 2 + random.nextInt(9);
+        if (random.nextDouble() < this.configProps.getSyntheticUnicodeRatio()) {
+            int[] range = UNICODE_RANGES[random.nextInt(UNICODE_RANGES.length)];
+            for (int i = 0; i < length; i++) {
+                sb.appendCodePoint(random.nextInt(range[0], range[1] + 1));
+            }
+        } else {
+            for (int i = 0; i < length; i++) {
+                sb.append(ASCII_LETTERS.charAt(random.nextInt(ASCII_LETTERS.length())));
+            }
+        }
+    }
 }
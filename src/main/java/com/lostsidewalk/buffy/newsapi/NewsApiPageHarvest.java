@@ -0,0 +1,108 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import com.kwabenaberko.newsapilib.models.Article;
+import com.kwabenaberko.newsapilib.models.response.ArticleResponse;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Collects the pages of a paginated request into a single response.  Pages after the first are fetched a window at
+ * a time (each fetch is expected to hold its own concurrency permit), and accepted in page order by the calling
+ * thread.  The harvest stops at the first page that yields no articles that haven't already been seen, either earlier
+ * in the harvest or (per knownKey) in a previous import; pages of the window beyond it are cancelled, so an early
+ * stop spends at most a window of quota on pages that are discarded.  If a page fails, the pages before it are still
+ * delivered.  Interrupting the calling thread cancels the pages in flight.
+ */
+@Slf4j
+class NewsApiPageHarvest {
+
+    @FunctionalInterface
+    interface PageFetcher {
+        ArticleResponse fetch(int page) throws Exception;
+    }
+
+    private final NewsApiRequest request;
+
+    private final int pageCount;
+
+    private final int window;
+
+    private final PageFetcher pageFetcher;
+
+    private final Function<Article, String> articleKey;
+
+    private final Predicate<String> knownKey;
+
+    // pages are only accepted by the calling thread, so no synchronization is needed
+    private final Set<String> seen = new HashSet<>();
+
+    private final List<Article> articles = new ArrayList<>();
+
+    private int harvestedCt;
+
+    NewsApiPageHarvest(NewsApiRequest request, int pageCount, int window, PageFetcher pageFetcher,
+                       Function<Article, String> articleKey, Predicate<String> knownKey) {
+        this.request = request;
+        this.pageCount = pageCount;
+        this.window = Math.max(1, window);
+        this.pageFetcher = pageFetcher;
+        this.articleKey = articleKey;
+        this.knownKey = knownKey;
+    }
+
+    ArticleResponse harvest(ArticleResponse firstPage, ExecutorService executor) throws InterruptedException {
+        Deque<Future<ArticleResponse>> inFlight = new ArrayDeque<>();
+        try {
+            boolean unseen = accept(firstPage);
+            int nextPage = 2;
+            for (int page = 2; unseen && page <= pageCount; page++) {
+                for (; nextPage <= pageCount && inFlight.size() < window; nextPage++) {
+                    int p = nextPage;
+                    inFlight.add(executor.submit(() -> pageFetcher.fetch(p)));
+                }
+                // the head page stays in flight (and cancellable) until it's done
+                ArticleResponse response = inFlight.element().get();
+                inFlight.remove();
+                unseen = accept(response);
+                if (!unseen) {
+                    log.debug("Page {} contained no unseen articles, stopping harvest, request={}", page, request);
+                }
+            }
+        } catch (ExecutionException e) {
+            log.warn("Harvest stopped at page {} of {} due to: {}, request={}", harvestedCt + 1, pageCount, e.getCause().getMessage(), request);
+        } catch (RejectedExecutionException e) {
+            log.warn("Harvest stopped at page {} of {} due to: {}, request={}", harvestedCt + 1, pageCount, e.getMessage(), request);
+        } finally {
+            inFlight.forEach(f -> f.cancel(true));
+        }
+        log.info("Harvested {} articles from {} pages, request={}", articles.size(), harvestedCt, request);
+        ArticleResponse merged = new ArticleResponse();
+        merged.setStatus("ok");
+        merged.setTotalResults(firstPage.getTotalResults());
+        merged.setArticles(articles);
+        return merged;
+    }
+
+    // true if the page had articles that haven't been seen before
+    private boolean accept(ArticleResponse response) {
+        boolean unseen = false;
+        if (response.getArticles() != null) {
+            for (Article a : response.getArticles()) {
+                String key = articleKey.apply(a);
+                if (seen.add(key)) {
+                    articles.add(a);
+                    unseen |= knownKey == null || !knownKey.test(key);
+                }
+            }
+        }
+        harvestedCt++;
+        return unseen;
+    }
+}
@@ -0,0 +1,602 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import com.lostsidewalk.buffy.post.ContentObject;
+import com.lostsidewalk.buffy.post.PostPerson;
+import com.lostsidewalk.buffy.post.StagingPost;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Compact, versioned binary encoding for batches of the staging posts this importer produces, for hand-off
+ * between stages that persist or replay import results.  Values that repeat across a batch (importer id and
+ * description, feed and query ids, username, content types, categories, authors) are written once, in per-field
+ * dictionaries, and referenced by index; timestamps are varint deltas from a batch base, strings are length-prefixed
+ * UTF-8 (UTF-16 if they hold unpaired surrogates), and hex post hashes (of either case) are stored as raw bytes.
+ * Fields the importer never sets aren't carried.
+ * <p>
+ * Layout (version 1): magic, version, post count, base timestamp, the dictionaries, then the posts.  Decoding
+ * reads directly from the buffer (heap buffers without copying), starting at its position.
+ */
+public final class NewsApiPostBatchCodec {
+
+    private static final int MAGIC = 0x4E475350; // "NGSP"
+
+    static final byte VERSION = 1;
+
+    // per-post flags
+    private static final int HAS_IMPORT_TIMESTAMP = 1;
+
+    private static final int HAS_PUBLISH_TIMESTAMP = 1 << 1;
+
+    private static final int HEX_POST_HASH = 1 << 2;
+
+    // with HEX_POST_HASH, the hash digits are upper case
+    private static final int UPPER_CASE_HEX = 1 << 3;
+
+    private NewsApiPostBatchCodec() {
+    }
+
+    //
+    // encoding
+    //
+
+    public static ByteBuffer encode(Collection<StagingPost> stagingPosts) {
+        Dictionaries dictionaries = new Dictionaries();
+        long baseTimestamp = Long.MAX_VALUE;
+        for (StagingPost s : stagingPosts) {
+            dictionaries.add(s);
+            if (s.getImportTimestamp() != null) {
+                baseTimestamp = Math.min(baseTimestamp, s.getImportTimestamp().getTime());
+            }
+        }
+        baseTimestamp = baseTimestamp == Long.MAX_VALUE ? 0L : baseTimestamp;
+
+        Output out = new Output(256 + stagingPosts.size() * 512);
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeVarLong(stagingPosts.size());
+        out.writeSignedVarLong(baseTimestamp);
+        dictionaries.write(out);
+        for (StagingPost s : stagingPosts) {
+            writePost(out, s, dictionaries, baseTimestamp);
+        }
+        return out.toByteBuffer();
+    }
+
+    private static void writePost(Output out, StagingPost s, Dictionaries d, long baseTimestamp) {
+        String postHash = s.getPostHash();
+        int hexFlags = hexFlags(postHash);
+        int flags = (s.getImportTimestamp() != null ? HAS_IMPORT_TIMESTAMP : 0)
+                | (s.getPublishTimestamp() != null ? HAS_PUBLISH_TIMESTAMP : 0)
+                | hexFlags;
+        out.writeVarLong(flags);
+        out.writeRef(d.importerIds.indexOf(s.getImporterId()));
+        out.writeRef(d.importerDescs.indexOf(s.getImporterDesc()));
+        out.writeRef(d.feedIds.indexOf(s.getFeedId()));
+        out.writeRef(d.queryIds.indexOf(s.getQueryId()));
+        out.writeRef(d.usernames.indexOf(s.getUsername()));
+        if (hexFlags != 0) {
+            out.writeHex(postHash);
+        } else {
+            out.writeString(postHash);
+        }
+        writeContent(out, s.getPostTitle(), d);
+        writeContent(out, s.getPostDesc(), d);
+        List<ContentObject> contents = s.getPostContents();
+        out.writeCount(contents);
+        if (contents != null) {
+            contents.forEach(c -> writeContent(out, c, d));
+        }
+        out.writeString(s.getPostUrl());
+        out.writeString(s.getPostImgUrl());
+        List<PostPerson> authors = s.getAuthors();
+        out.writeCount(authors);
+        if (authors != null) {
+            authors.forEach(a -> out.writeRef(d.authors.indexOf(a == null ? null : a.getName())));
+        }
+        List<String> categories = s.getPostCategories();
+        out.writeCount(categories);
+        if (categories != null) {
+            categories.forEach(c -> out.writeRef(d.categories.indexOf(c)));
+        }
+        if (s.getImportTimestamp() != null) {
+            out.writeSignedVarLong(s.getImportTimestamp().getTime() - baseTimestamp);
+        }
+        if (s.getPublishTimestamp() != null) {
+            out.writeSignedVarLong(s.getPublishTimestamp().getTime() - baseTimestamp);
+        }
+    }
+
+    private static void writeContent(Output out, ContentObject contentObject, Dictionaries d) {
+        if (contentObject == null) {
+            out.writeVarLong(0L);
+            return;
+        }
+        // content type refs are shifted by one, so that zero can mark a null content object
+        out.writeVarLong(d.contentTypes.indexOf(contentObject.getType()) + 2L);
+        out.writeString(contentObject.getValue());
+    }
+
+    // HEX_POST_HASH (plus UPPER_CASE_HEX) if the string is an even number of hex digits in a single case, otherwise 0
+    private static int hexFlags(String s) {
+        if (s == null || s.isEmpty() || s.length() % 2 != 0) {
+            return 0;
+        }
+        boolean lower = false;
+        boolean upper = false;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c >= 'a' && c <= 'f') {
+                lower = true;
+            } else if (c >= 'A' && c <= 'F') {
+                upper = true;
+            } else if (c < '0' || c > '9') {
+                return 0;
+            }
+        }
+        if (lower && upper) {
+            return 0;
+        }
+        return upper ? HEX_POST_HASH | UPPER_CASE_HEX : HEX_POST_HASH;
+    }
+
+    //
+    // decoding
+    //
+
+    public static List<StagingPost> decode(ByteBuffer buffer) throws IOException {
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new StreamCorruptedException("Not a staging post batch");
+            }
+            byte version = buffer.get();
+            if (version != VERSION) {
+                throw new StreamCorruptedException("Unsupported staging post batch version: " + version);
+            }
+            Input in = new Input(buffer);
+            int postCt = in.readSize();
+            long baseTimestamp = in.readSignedVarLong();
+            DecodedDictionaries d = new DecodedDictionaries(in);
+            List<StagingPost> stagingPosts = new ArrayList<>(postCt);
+            for (int i = 0; i < postCt; i++) {
+                stagingPosts.add(readPost(in, d, baseTimestamp));
+            }
+            return stagingPosts;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            StreamCorruptedException corrupt = new StreamCorruptedException("Truncated or corrupt staging post batch");
+            corrupt.initCause(e);
+            throw corrupt;
+        }
+    }
+
+    private static StagingPost readPost(Input in, DecodedDictionaries d, long baseTimestamp) throws StreamCorruptedException {
+        int flags = (int) in.readVarLong();
+        String importerId = in.readRef(d.importerIds);
+        String importerDesc = in.readRef(d.importerDescs);
+        Long feedId = in.readRef(d.feedIds);
+        Long queryId = in.readRef(d.queryIds);
+        String username = in.readRef(d.usernames);
+        String postHash = (flags & HEX_POST_HASH) != 0 ? in.readHex((flags & UPPER_CASE_HEX) != 0) : in.readString();
+        ContentObject title = readContent(in, d);
+        ContentObject desc = readContent(in, d);
+        int contentCt = in.readCount();
+        List<ContentObject> contents = null;
+        if (contentCt >= 0) {
+            contents = new ArrayList<>(contentCt);
+            for (int i = 0; i < contentCt; i++) {
+                contents.add(readContent(in, d));
+            }
+        }
+        String url = in.readString();
+        String imgUrl = in.readString();
+        int authorCt = in.readCount();
+        List<PostPerson> authors = null;
+        if (authorCt >= 0) {
+            authors = new ArrayList<>(authorCt);
+            for (int i = 0; i < authorCt; i++) {
+                PostPerson author = new PostPerson();
+                author.setName(in.readRef(d.authors));
+                authors.add(author);
+            }
+        }
+        int categoryCt = in.readCount();
+        List<String> categories = null;
+        if (categoryCt >= 0) {
+            categories = new ArrayList<>(categoryCt);
+            for (int i = 0; i < categoryCt; i++) {
+                categories.add(in.readRef(d.categories));
+            }
+        }
+        Date importTimestamp = (flags & HAS_IMPORT_TIMESTAMP) != 0 ? new Date(baseTimestamp + in.readSignedVarLong()) : null;
+        Date publishTimestamp = (flags & HAS_PUBLISH_TIMESTAMP) != 0 ? new Date(baseTimestamp + in.readSignedVarLong()) : null;
+        return StagingPost.from(
+                importerId, // importer Id
+                feedId, // feed Id
+                importerDesc, // importer desc
+                queryId,
+                title, // post title
+                desc, // post description
+                contents, // post_contents
+                null, // post_media
+                null, // post_itunes
+                url, // post url
+                null, // post urls
+                imgUrl, // post img url
+                importTimestamp, // import timestamp
+                postHash, // post hash
+                username, // post username
+                null, // post comment
+                null, // post rights
+                null, // contributors
+                authors, // authors
+                categories, // post categories
+                publishTimestamp, // publish timestamp
+                null, // expiration timestamp
+                null, // enclosures
+                null // last updated timestamp
+        );
+    }
+
+    private static ContentObject readContent(Input in, DecodedDictionaries d) throws StreamCorruptedException {
+        long ref = in.readVarLong();
+        if (ref == 0L) {
+            return null;
+        }
+        String type = ref == 1L ? null : d.contentTypes.get(checkRef(ref - 2L, d.contentTypes));
+        return ContentObject.from(type, in.readString());
+    }
+
+    private static int checkRef(long index, List<?> dictionary) throws StreamCorruptedException {
+        if (index < 0L || index >= dictionary.size()) {
+            throw new StreamCorruptedException("Dictionary reference out of range: " + index);
+        }
+        return (int) index;
+    }
+
+    //
+    // dictionaries
+    //
+
+    // values in order of first appearance; indexOf is -1 for null
+    private static class Dictionary<T> {
+
+        private final Map<T, Integer> indexes = new LinkedHashMap<>();
+
+        void add(T value) {
+            if (value != null) {
+                indexes.putIfAbsent(value, indexes.size());
+            }
+        }
+
+        int indexOf(T value) {
+            return value == null ? -1 : indexes.get(value);
+        }
+
+        Set<T> values() {
+            return indexes.keySet();
+        }
+    }
+
+    private static class Dictionaries {
+
+        final Dictionary<String> importerIds = new Dictionary<>();
+
+        final Dictionary<String> importerDescs = new Dictionary<>();
+
+        final Dictionary<Long> feedIds = new Dictionary<>();
+
+        final Dictionary<Long> queryIds = new Dictionary<>();
+
+        final Dictionary<String> usernames = new Dictionary<>();
+
+        final Dictionary<String> contentTypes = new Dictionary<>();
+
+        final Dictionary<String> authors = new Dictionary<>();
+
+        final Dictionary<String> categories = new Dictionary<>();
+
+        void add(StagingPost s) {
+            importerIds.add(s.getImporterId());
+            importerDescs.add(s.getImporterDesc());
+            feedIds.add(s.getFeedId());
+            queryIds.add(s.getQueryId());
+            usernames.add(s.getUsername());
+            addContentType(s.getPostTitle());
+            addContentType(s.getPostDesc());
+            if (s.getPostContents() != null) {
+                s.getPostContents().forEach(this::addContentType);
+            }
+            if (s.getAuthors() != null) {
+                s.getAuthors().forEach(a -> authors.add(a == null ? null : a.getName()));
+            }
+            if (s.getPostCategories() != null) {
+                s.getPostCategories().forEach(categories::add);
+            }
+        }
+
+        private void addContentType(ContentObject contentObject) {
+            if (contentObject != null) {
+                contentTypes.add(contentObject.getType());
+            }
+        }
+
+        void write(Output out) {
+            writeStrings(out, importerIds);
+            writeStrings(out, importerDescs);
+            writeLongs(out, feedIds);
+            writeLongs(out, queryIds);
+            writeStrings(out, usernames);
+            writeStrings(out, contentTypes);
+            writeStrings(out, authors);
+            writeStrings(out, categories);
+        }
+
+        private static void writeStrings(Output out, Dictionary<String> dictionary) {
+            out.writeVarLong(dictionary.values().size());
+            dictionary.values().forEach(out::writeString);
+        }
+
+        private static void writeLongs(Output out, Dictionary<Long> dictionary) {
+            out.writeVarLong(dictionary.values().size());
+            dictionary.values().forEach(out::writeSignedVarLong);
+        }
+    }
+
+    // each dictionary string is decoded once, and shared by every post that references it
+    private static class DecodedDictionaries {
+
+        final List<String> importerIds;
+
+        final List<String> importerDescs;
+
+        final List<Long> feedIds;
+
+        final List<Long> queryIds;
+
+        final List<String> usernames;
+
+        final List<String> contentTypes;
+
+        final List<String> authors;
+
+        final List<String> categories;
+
+        DecodedDictionaries(Input in) throws StreamCorruptedException {
+            importerIds = readStrings(in);
+            importerDescs = readStrings(in);
+            feedIds = readLongs(in);
+            queryIds = readLongs(in);
+            usernames = readStrings(in);
+            contentTypes = readStrings(in);
+            authors = readStrings(in);
+            categories = readStrings(in);
+        }
+
+        private static List<String> readStrings(Input in) throws StreamCorruptedException {
+            int size = in.readSize();
+            List<String> values = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                values.add(in.readString());
+            }
+            return values;
+        }
+
+        private static List<Long> readLongs(Input in) throws StreamCorruptedException {
+            int size = in.readSize();
+            List<Long> values = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                values.add(in.readSignedVarLong());
+            }
+            return values;
+        }
+    }
+
+    //
+    // primitives
+    //
+
+    private static class Output {
+
+        private byte[] bytes;
+
+        private int length;
+
+        Output(int initialCapacity) {
+            this.bytes = new byte[initialCapacity];
+        }
+
+        private void ensureCapacity(int additional) {
+            if (length + additional > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + additional));
+            }
+        }
+
+        void writeByte(int b) {
+            ensureCapacity(1);
+            bytes[length++] = (byte) b;
+        }
+
+        void writeInt(int i) {
+            ensureCapacity(4);
+            ByteBuffer.wrap(bytes, length, 4).putInt(i);
+            length += 4;
+        }
+
+        // unsigned LEB128
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0L) {
+                bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[length++] = (byte) value;
+        }
+
+        // zig-zag, so that small negative values stay small
+        void writeSignedVarLong(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        // dictionary index + 1 (zero for null)
+        void writeRef(int index) {
+            writeVarLong(index + 1L);
+        }
+
+        // element count + 1 (zero for a null list)
+        void writeCount(Collection<?> collection) {
+            writeVarLong(collection == null ? 0L : collection.size() + 1L);
+        }
+
+        // (byte length << 1 | UTF-16 flag) + 1 (zero for null), then UTF-8; strings with unpaired surrogates, which
+        // UTF-8 can't carry, are written as big-endian UTF-16 instead
+        void writeString(String s) {
+            if (s == null) {
+                writeVarLong(0L);
+                return;
+            }
+            if (hasUnpairedSurrogate(s)) {
+                writeVarLong(((long) s.length() * 2L << 1 | 1L) + 1L);
+                ensureCapacity(s.length() * 2);
+                for (int i = 0; i < s.length(); i++) {
+                    char c = s.charAt(i);
+                    bytes[length++] = (byte) (c >> 8);
+                    bytes[length++] = (byte) c;
+                }
+                return;
+            }
+            byte[] utf8 = s.getBytes(UTF_8);
+            writeVarLong(((long) utf8.length << 1) + 1L);
+            ensureCapacity(utf8.length);
+            System.arraycopy(utf8, 0, bytes, length, utf8.length);
+            length += utf8.length;
+        }
+
+        void writeHex(String hex) {
+            int byteCt = hex.length() / 2;
+            writeVarLong(byteCt);
+            ensureCapacity(byteCt);
+            for (int i = 0; i < byteCt; i++) {
+                bytes[length++] = (byte) ((Character.digit(hex.charAt(2 * i), 16) << 4) | Character.digit(hex.charAt(2 * i + 1), 16));
+            }
+        }
+
+        private static boolean hasUnpairedSurrogate(String s) {
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    i++;
+                } else if (Character.isSurrogate(c)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        ByteBuffer toByteBuffer() {
+            return ByteBuffer.wrap(bytes, 0, length);
+        }
+    }
+
+    private static class Input {
+
+        private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+        private static final char[] UPPER_CASE_HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+        private final ByteBuffer buffer;
+
+        Input(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        long readVarLong() throws StreamCorruptedException {
+            long value = 0L;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = buffer.get();
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new StreamCorruptedException("Malformed varint");
+        }
+
+        long readSignedVarLong() throws StreamCorruptedException {
+            long value = readVarLong();
+            return (value >>> 1) ^ -(value & 1L);
+        }
+
+        <T> T readRef(List<T> dictionary) throws StreamCorruptedException {
+            long ref = readVarLong();
+            return ref == 0L ? null : dictionary.get(checkRef(ref - 1L, dictionary));
+        }
+
+        int readSize() throws StreamCorruptedException {
+            return checkSize(readVarLong());
+        }
+
+        // element count, or -1 for a null list
+        int readCount() throws StreamCorruptedException {
+            long value = readVarLong();
+            return value == 0L ? -1 : checkSize(value - 1L);
+        }
+
+        // every element (or byte) takes at least one byte, so a size can't exceed the bytes left
+        private int checkSize(long size) throws StreamCorruptedException {
+            if (size < 0L || size > buffer.remaining()) {
+                throw new StreamCorruptedException("Size exceeds the batch: " + size);
+            }
+            return (int) size;
+        }
+
+        String readString() throws StreamCorruptedException {
+            long value = readVarLong();
+            if (value == 0L) {
+                return null;
+            }
+            int length = checkSize((value - 1L) >>> 1);
+            if (((value - 1L) & 1L) != 0L) {
+                return readUtf16(length);
+            }
+            String s;
+            if (buffer.hasArray()) {
+                s = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, UTF_8);
+            } else {
+                byte[] utf8 = new byte[length];
+                buffer.get(buffer.position(), utf8);
+                s = new String(utf8, UTF_8);
+            }
+            buffer.position(buffer.position() + length);
+            return s;
+        }
+
+        private String readUtf16(int length) throws StreamCorruptedException {
+            if (length % 2 != 0) {
+                throw new StreamCorruptedException("Odd UTF-16 string length: " + length);
+            }
+            char[] chars = new char[length / 2];
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = (char) ((buffer.get() & 0xFF) << 8 | (buffer.get() & 0xFF));
+            }
+            return new String(chars);
+        }
+
+        String readHex(boolean upperCase) throws StreamCorruptedException {
+            char[] digits = upperCase ? UPPER_CASE_HEX_DIGITS : HEX_DIGITS;
+            int byteCt = readSize();
+            char[] hex = new char[byteCt * 2];
+            for (int i = 0; i < byteCt; i++) {
+                byte b = buffer.get();
+                hex[2 * i] = digits[(b >> 4) & 0xF];
+                hex[2 * i + 1] = digits[b & 0xF];
+            }
+            return new String(hex);
+        }
+    }
+}
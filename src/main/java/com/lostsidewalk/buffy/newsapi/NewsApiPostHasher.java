@@ -0,0 +1,228 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.kwabenaberko.newsapilib.models.Article;
+import com.kwabenaberko.newsapilib.models.Source;
+import io.micrometer.core.instrument.Timer;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Computes post hashes without building intermediate JSON trees or serialized byte arrays.
+ * <p>
+ * COMPATIBLE mode reproduces the original hash, MD5(java-serialized String "feedId:articleJson"), by writing the
+ * object stream framing and the modified UTF-8 encoding of the string straight into a reused digest.  FAST mode
+ * hashes the article fields with murmur3_128 (the body hash, which doesn't depend on the feed), then derives the
+ * post hash from the feed id and the body hash.
+ */
+class NewsApiPostHasher {
+
+    private static final HexFormat HEX_FORMAT = HexFormat.of().withUpperCase();
+
+    // JsonElement.toString() doesn't escape HTML characters, so neither can this
+    private static final Gson GSON = new GsonBuilder().disableHtmlEscaping().create();
+
+    private static final HashFunction MURMUR3_128 = Hashing.murmur3_128();
+
+    // java.io.ObjectStreamConstants: STREAM_MAGIC, STREAM_VERSION
+    private static final byte[] STREAM_HEADER = { (byte) 0xAC, (byte) 0xED, 0x00, 0x05 };
+
+    private static final byte TC_STRING = 0x74;
+
+    private static final byte TC_LONGSTRING = 0x7C;
+
+    private static final int MAX_RETAINED_CAPACITY = 1 << 20;
+
+    private static final ThreadLocal<HashState> HASH_STATE = ThreadLocal.withInitial(HashState::new);
+
+    private static class HashState {
+
+        final MessageDigest md5;
+
+        final byte[] buffer = new byte[8192];
+
+        StringBuilder source = new StringBuilder(4096);
+
+        HashState() {
+            try {
+                this.md5 = MessageDigest.getInstance("MD5");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private final NewsApiHashMode hashMode;
+
+    private final Timer hashTimer;
+
+    NewsApiPostHasher(NewsApiHashMode hashMode) {
+        this(hashMode, null);
+    }
+
+    NewsApiPostHasher(NewsApiHashMode hashMode, Timer hashTimer) {
+        this.hashMode = hashMode;
+        this.hashTimer = hashTimer;
+    }
+
+    String computeHash(Long feedId, Article article) {
+        return computeHash(feedId, article, null);
+    }
+
+    // canonicalJson, if present, is the article as Gson serializes it, and spares re-serializing it here
+    String computeHash(Long feedId, Article article, String canonicalJson) {
+        long startNanos = hashTimer != null ? System.nanoTime() : 0L;
+        String hash = hashMode == NewsApiHashMode.FAST ?
+                deriveFastHash(feedId, computeBodyHash(article)) :
+                computeCompatibleHash(feedId, article, canonicalJson);
+        if (hashTimer != null) {
+            hashTimer.record(System.nanoTime() - startNanos, NANOSECONDS);
+        }
+        return hash;
+    }
+
+    // same as computeHash for the article, reusing the work already done for it
+    String computeHash(Long feedId, NewsApiCanonicalArticle canonicalArticle) {
+        long startNanos = hashTimer != null ? System.nanoTime() : 0L;
+        String hash = hashMode == NewsApiHashMode.FAST ?
+                deriveFastHash(feedId, canonicalArticle.bodyHash()) :
+                computeCompatibleHash(feedId, null, canonicalArticle.canonicalJson());
+        if (hashTimer != null) {
+            hashTimer.record(System.nanoTime() - startNanos, NANOSECONDS);
+        }
+        return hash;
+    }
+
+    // the serialized form the COMPATIBLE hash covers; FAST mode doesn't need it
+    String getCanonicalJson(Article article, String canonicalJson) {
+        if (hashMode == NewsApiHashMode.FAST) {
+            return null;
+        }
+        return canonicalJson != null ? canonicalJson : GSON.toJson(article, Article.class);
+    }
+
+    //
+    // COMPATIBLE
+    //
+
+    private static String computeCompatibleHash(Long feedId, Article article, String canonicalJson) {
+        HashState state = HASH_STATE.get();
+        StringBuilder source = state.source;
+        source.setLength(0);
+        source.append(feedId).append(':');
+        if (canonicalJson != null) {
+            source.append(canonicalJson);
+        } else {
+            GSON.toJson(article, Article.class, source);
+        }
+        MessageDigest md = state.md5;
+        md.reset();
+        md.update(STREAM_HEADER);
+        long utfLength = modifiedUtf8Length(source);
+        if (utfLength <= 0xFFFF) {
+            md.update(TC_STRING);
+            md.update((byte) (utfLength >>> 8));
+            md.update((byte) utfLength);
+        } else {
+            md.update(TC_LONGSTRING);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                md.update((byte) (utfLength >>> shift));
+            }
+        }
+        updateModifiedUtf8(md, state.buffer, source);
+        if (source.capacity() > MAX_RETAINED_CAPACITY) {
+            state.source = new StringBuilder(4096);
+        }
+        return HEX_FORMAT.formatHex(md.digest());
+    }
+
+    private static long modifiedUtf8Length(CharSequence cs) {
+        long utfLength = 0L;
+        for (int i = 0, len = cs.length(); i < len; i++) {
+            char c = cs.charAt(i);
+            utfLength += (c >= 0x0001 && c <= 0x007F) ? 1 : (c > 0x07FF ? 3 : 2);
+        }
+        return utfLength;
+    }
+
+    // same encoding as DataOutputStream.writeUTF (no surrogate pairing, and NUL is encoded in two bytes)
+    private static void updateModifiedUtf8(MessageDigest md, byte[] buffer, CharSequence cs) {
+        int pos = 0;
+        for (int i = 0, len = cs.length(); i < len; i++) {
+            if (pos > buffer.length - 3) {
+                md.update(buffer, 0, pos);
+                pos = 0;
+            }
+            char c = cs.charAt(i);
+            if (c >= 0x0001 && c <= 0x007F) {
+                buffer[pos++] = (byte) c;
+            } else if (c > 0x07FF) {
+                buffer[pos++] = (byte) (0xE0 | ((c >> 12) & 0x0F));
+                buffer[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else {
+                buffer[pos++] = (byte) (0xC0 | ((c >> 6) & 0x1F));
+                buffer[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        md.update(buffer, 0, pos);
+    }
+
+    //
+    // FAST
+    //
+
+    // identifies the article by content, independent of feed
+    HashCode computeBodyHash(Article article) {
+        Hasher hasher = MURMUR3_128.newHasher();
+        Source source = article.getSource();
+        if (source != null) {
+            hasher.putBoolean(true);
+            putField(hasher, source.getId());
+            putField(hasher, source.getName());
+            putField(hasher, source.getDescription());
+            putField(hasher, source.getUrl());
+            putField(hasher, source.getCategory());
+            putField(hasher, source.getLanguage());
+            putField(hasher, source.getCountry());
+        } else {
+            hasher.putBoolean(false);
+        }
+        putField(hasher, article.getAuthor());
+        putField(hasher, article.getTitle());
+        putField(hasher, article.getDescription());
+        putField(hasher, article.getUrl());
+        putField(hasher, article.getUrlToImage());
+        putField(hasher, article.getPublishedAt());
+        putField(hasher, article.getContent());
+        return hasher.hash();
+    }
+
+    private static String deriveFastHash(Long feedId, HashCode bodyHash) {
+        Hasher hasher = MURMUR3_128.newHasher();
+        if (feedId != null) {
+            hasher.putBoolean(true).putLong(feedId);
+        } else {
+            hasher.putBoolean(false);
+        }
+        return HEX_FORMAT.formatHex(hasher.putBytes(bodyHash.asBytes()).hash().asBytes());
+    }
+
+    // length-prefixed, so that adjacent fields can't run together
+    private static void putField(Hasher hasher, String value) {
+        if (value == null) {
+            hasher.putInt(-1);
+        } else {
+            hasher.putInt(value.length()).putUnencodedChars(value);
+        }
+    }
+}
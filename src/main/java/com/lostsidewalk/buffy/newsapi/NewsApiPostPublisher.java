@@ -0,0 +1,71 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import com.lostsidewalk.buffy.post.StagingPost;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Publishes the posts of each completed query as a batch while the import is still running.  Batches are buffered
+ * up to a fixed capacity; once the buffer is full, workers block on publish until the subscriber catches up (or the
+ * import deadline passes), which holds back further fetching.  Posts are deduplicated by hash across the import,
+ * as they would be in the ImportResult.
+ */
+@Slf4j
+class NewsApiPostPublisher implements AutoCloseable {
+
+    // the subscriber may block (e.g., on writes), so it gets its own thread rather than one from a shared pool
+    private final ExecutorService deliveryExecutor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("newsapiv2-publisher-", 0).factory());
+
+    private final SubmissionPublisher<List<StagingPost>> publisher;
+
+    private final Set<String> publishedHashes = ConcurrentHashMap.newKeySet();
+
+    private final Instant deadline;
+
+    NewsApiPostPublisher(Flow.Subscriber<? super List<StagingPost>> subscriber, int bufferCapacity, Instant deadline) {
+        this.publisher = new SubmissionPublisher<>(deliveryExecutor, bufferCapacity);
+        this.publisher.subscribe(subscriber);
+        this.deadline = deadline;
+    }
+
+    // returns false if the batch couldn't be published before the deadline
+    boolean publish(Collection<StagingPost> stagingPosts) {
+        List<StagingPost> batch = stagingPosts.stream()
+                .filter(s -> publishedHashes.add(s.getPostHash()))
+                .toList();
+        if (batch.isEmpty()) {
+            return true;
+        }
+        long timeoutMillis = Math.max(0L, Duration.between(Instant.now(), deadline).toMillis());
+        boolean published;
+        try {
+            published = publisher.offer(batch, timeoutMillis, MILLISECONDS, (subscriber, dropped) -> false) >= 0;
+        } catch (IllegalStateException e) {
+            published = false; // closed
+        }
+        if (!published) {
+            log.warn("Dropped batch of {} posts, subscriber did not keep up before the import deadline", batch.size());
+            batch.forEach(s -> publishedHashes.remove(s.getPostHash()));
+        }
+        return published;
+    }
+
+    @Override
+    public void close() {
+        publisher.close();
+        deliveryExecutor.shutdown();
+    }
+}
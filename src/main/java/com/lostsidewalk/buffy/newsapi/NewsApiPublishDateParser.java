@@ -0,0 +1,104 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+import java.util.List;
+
+import static java.time.format.DateTimeFormatter.*;
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+/**
+ * Parses NewsAPI publishedAt values.  NewsAPI almost always sends yyyy-MM-ddTHH:mm:ssZ, which is decoded directly;
+ * anything else goes through a list of lenient fallbacks.  Unparseable values yield null rather than an exception,
+ * so one bad article doesn't discard the rest of its page.
+ */
+@Slf4j
+final class NewsApiPublishDateParser {
+
+    private static final List<DateTimeFormatter> FALLBACK_FORMATTERS = List.of(
+            ISO_INSTANT,
+            ISO_OFFSET_DATE_TIME,
+            ISO_ZONED_DATE_TIME,
+            ISO_LOCAL_DATE_TIME.withZone(ZoneOffset.UTC),
+            RFC_1123_DATE_TIME
+    );
+
+    private static final int[] DAYS_IN_MONTH = { 31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31 };
+
+    private NewsApiPublishDateParser() {
+    }
+
+    static Date parse(String str) {
+        if (isBlank(str)) {
+            return null;
+        }
+        String s = str.trim();
+        long epochSecond = parseFastPath(s);
+        if (epochSecond != Long.MIN_VALUE) {
+            return new Date(epochSecond * 1000L);
+        }
+        for (DateTimeFormatter f : FALLBACK_FORMATTERS) {
+            try {
+                TemporalAccessor t = f.parse(s);
+                return Date.from(Instant.from(t));
+            } catch (DateTimeException ignored) {
+                // try the next format
+            }
+        }
+        try {
+            return Date.from(LocalDate.parse(s, ISO_LOCAL_DATE).atStartOfDay(ZoneOffset.UTC).toInstant());
+        } catch (DateTimeParseException ignored) {
+            log.debug("Unable to parse publish timestamp: {}", str);
+            return null;
+        }
+    }
+
+    // yyyy-MM-ddTHH:mm:ssZ, or Long.MIN_VALUE if s isn't exactly that shape
+    private static long parseFastPath(String s) {
+        if (s.length() != 20 || s.charAt(4) != '-' || s.charAt(7) != '-' || s.charAt(10) != 'T'
+                || s.charAt(13) != ':' || s.charAt(16) != ':' || s.charAt(19) != 'Z') {
+            return Long.MIN_VALUE;
+        }
+        int year = digits(s, 0, 4);
+        int month = digits(s, 5, 2);
+        int day = digits(s, 8, 2);
+        int hour = digits(s, 11, 2);
+        int minute = digits(s, 14, 2);
+        int second = digits(s, 17, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return Long.MIN_VALUE;
+        }
+        int maxDay = (month == 2 && Year.isLeap(year)) ? 29 : DAYS_IN_MONTH[month - 1];
+        if (day > maxDay) {
+            return Long.MIN_VALUE;
+        }
+        return epochDay(year, month, day) * 86_400L + hour * 3_600L + minute * 60L + second;
+    }
+
+    private static int digits(String s, int offset, int length) {
+        int value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            int d = s.charAt(i) - '0';
+            if (d < 0 || d > 9) {
+                return -1;
+            }
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    // days since 1970-01-01 in the proleptic Gregorian calendar (H. Hinnant's days_from_civil)
+    private static long epochDay(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yoe = y - era * 400;
+        long doy = (153L * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146_097 + doe - 719_468;
+    }
+}
@@ -0,0 +1,15 @@
+package com.lostsidewalk.buffy.newsapi;
+
+class NewsApiQueryException extends RuntimeException {
+
+    private final NewsApiErrorType errorType;
+
+    NewsApiQueryException(NewsApiErrorType errorType, String message) {
+        super(message);
+        this.errorType = errorType;
+    }
+
+    NewsApiErrorType getErrorType() {
+        return errorType;
+    }
+}
@@ -0,0 +1,49 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import com.lostsidewalk.buffy.query.QueryDefinition;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * Splits each import between the importer nodes: every node is handed the full list of queries, and keeps the ones
+ * whose partition key it owns on a consistent-hash ring of the current members.  Queries sharing a request share a
+ * key, so each request is still made once across the cluster.  The ring is rebuilt from the membership at every
+ * import, so a node joining or leaving moves only its share of the queries.  High-water marks are per node, so a
+ * query that moves is imported in full once by its new owner.
+ */
+@Slf4j
+class NewsApiQueryPartitioner {
+
+    private final NewsApiClusterMembership membership;
+
+    private volatile List<String> lastMembers;
+
+    NewsApiQueryPartitioner(NewsApiClusterMembership membership) {
+        this.membership = membership;
+    }
+
+    List<QueryDefinition> partition(List<QueryDefinition> queryDefinitions, Function<QueryDefinition, String> partitionKey) {
+        String localNodeId = membership.getLocalNodeId();
+        List<String> members = membership.getMembers().stream().sorted().toList();
+        if (!Objects.equals(members, lastMembers)) {
+            log.info("NewsAPI V2 partition membership changed, localNodeId={}, members={}", localNodeId, members);
+            lastMembers = members;
+        }
+        if (!members.contains(localNodeId)) {
+            log.warn("NewsAPI V2 node {} is not a member of the cluster, skipping import", localNodeId);
+            return List.of();
+        }
+        Map<String, String> nodesById = members.stream().collect(toMap(identity(), identity()));
+        NewsApiHashRing<String> ring = new NewsApiHashRing<>(nodesById);
+        return queryDefinitions.stream()
+                .filter(q -> localNodeId.equals(ring.getOwner(partitionKey.apply(q))))
+                .toList();
+    }
+}
@@ -0,0 +1,128 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import com.google.common.hash.HashFunction;
+import com.lostsidewalk.buffy.query.QueryDefinition;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.google.common.hash.Hashing.murmur3_128;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Decides which queries run in an import, and in what order, from the outcomes of earlier imports.  Queries that
+ * keep turning up new posts run every import, highest yield first; queries that haven't turned up anything in a
+ * while are deferred, for up to a quarter of the time they've been idle (capped at the max defer time).  Failed
+ * queries aren't deferred, and queries with no history run first.
+ * <p>
+ * Yield is the number of posts a query returned that its previous run didn't, so it doesn't depend on high-water
+ * marks or the seen index; without them, every run returns (and counts) the whole page, and a query would never go
+ * quiet.  Each query's previous posts are kept as 64-bit fingerprints.
+ */
+class NewsApiQueryScheduler {
+
+    private static final double SMOOTHING = 0.3;
+
+    private static final int IDLE_DIVISOR = 4;
+
+    private static final HashFunction FINGERPRINT = murmur3_128();
+
+    private static final long[] NO_FINGERPRINTS = new long[0];
+
+    // fingerprints are the sorted fingerprints of the posts returned by the last run that returned any
+    private record QueryHistory(Instant lastRunAt, Instant lastChangeAt, double avgNewCt, double errorRate, long[] fingerprints) {}
+
+    private final Map<Long, QueryHistory> histories = new ConcurrentHashMap<>();
+
+    private final Clock clock;
+
+    private final Duration maxDefer;
+
+    NewsApiQueryScheduler(Clock clock, Duration maxDefer) {
+        this.clock = clock;
+        this.maxDefer = maxDefer;
+    }
+
+    boolean isDue(QueryDefinition queryDefinition) {
+        QueryHistory history = histories.get(queryDefinition.getId());
+        if (history == null || history.lastRunAt() == null) {
+            return true;
+        }
+        Instant now = clock.instant();
+        Duration idle = Duration.between(history.lastChangeAt(), now);
+        Duration deferFor = idle.dividedBy(IDLE_DIVISOR);
+        if (deferFor.compareTo(maxDefer) > 0) {
+            deferFor = maxDefer;
+        }
+        return Duration.between(history.lastRunAt(), now).compareTo(deferFor) >= 0;
+    }
+
+    // expected new posts per run, discounted by the error rate
+    double getPriority(QueryDefinition queryDefinition) {
+        QueryHistory history = histories.get(queryDefinition.getId());
+        return history == null ? Double.POSITIVE_INFINITY : history.avgNewCt() * (1.0 - history.errorRate());
+    }
+
+    // a request is worth as much as the best of the queries it serves
+    double getPriority(List<QueryDefinition> queryDefinitions) {
+        double priority = 0.0;
+        for (QueryDefinition q : queryDefinitions) {
+            priority = Math.max(priority, getPriority(q));
+        }
+        return priority;
+    }
+
+    void record(QueryDefinition queryDefinition, Collection<String> postHashes, boolean failed) {
+        Long queryId = queryDefinition.getId();
+        if (queryId == null) {
+            return;
+        }
+        Instant now = clock.instant();
+        histories.compute(queryId, (id, h) -> {
+            if (failed) {
+                // a failed run doesn't count as a run, so the query isn't deferred on account of it
+                return h == null ?
+                        new QueryHistory(null, now, 0.0, 1.0, NO_FINGERPRINTS) :
+                        new QueryHistory(h.lastRunAt(), h.lastChangeAt(), h.avgNewCt(), smooth(h.errorRate(), 1.0), h.fingerprints());
+            }
+            long[] fingerprints = fingerprints(postHashes);
+            if (h == null) {
+                return new QueryHistory(now, now, fingerprints.length, 0.0, fingerprints);
+            }
+            int newCt = countNew(fingerprints, h.fingerprints());
+            // an empty run doesn't make the next full one look new
+            long[] retained = fingerprints.length > 0 ? fingerprints : h.fingerprints();
+            return new QueryHistory(now, newCt > 0 ? now : h.lastChangeAt(), smooth(h.avgNewCt(), newCt), smooth(h.errorRate(), 0.0), retained);
+        });
+    }
+
+    // drop history for queries that no longer exist
+    void retainAll(Set<Long> queryIds) {
+        histories.keySet().retainAll(queryIds);
+    }
+
+    private static long[] fingerprints(Collection<String> postHashes) {
+        return postHashes.stream()
+                .mapToLong(postHash -> FINGERPRINT.hashString(postHash, UTF_8).asLong())
+                .distinct()
+                .sorted()
+                .toArray();
+    }
+
+    private static int countNew(long[] fingerprints, long[] previous) {
+        int newCt = 0;
+        for (long fingerprint : fingerprints) {
+            if (Arrays.binarySearch(previous, fingerprint) < 0) {
+                newCt++;
+            }
+        }
+        return newCt;
+    }
+
+    private static double smooth(double average, double sample) {
+        return average + SMOOTHING * (sample - average);
+    }
+}
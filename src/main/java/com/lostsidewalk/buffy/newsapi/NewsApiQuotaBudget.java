@@ -0,0 +1,45 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Counts requests against a daily limit.  The count resets at the start of each day (per the supplied clock).
+ */
+class NewsApiQuotaBudget {
+
+    private record DailyUsage(LocalDate day, long used) {}
+
+    private final long dailyLimit;
+
+    private final Clock clock;
+
+    private final AtomicReference<DailyUsage> usage;
+
+    NewsApiQuotaBudget(long dailyLimit, Clock clock) {
+        this.dailyLimit = dailyLimit;
+        this.clock = clock;
+        this.usage = new AtomicReference<>(new DailyUsage(LocalDate.now(clock), 0L));
+    }
+
+    boolean tryConsume() {
+        while (true) {
+            DailyUsage current = usage.get();
+            LocalDate today = LocalDate.now(clock);
+            long used = today.equals(current.day()) ? current.used() : 0L;
+            if (used >= dailyLimit) {
+                return false;
+            }
+            if (usage.compareAndSet(current, new DailyUsage(today, used + 1))) {
+                return true;
+            }
+        }
+    }
+
+    long getRemaining() {
+        DailyUsage current = usage.get();
+        long used = LocalDate.now(clock).equals(current.day()) ? current.used() : 0L;
+        return Math.max(0L, dailyLimit - used);
+    }
+}
@@ -0,0 +1,140 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.reflect.TypeToken;
+import com.kwabenaberko.newsapilib.models.request.EverythingRequest;
+import com.kwabenaberko.newsapilib.models.request.TopHeadlinesRequest;
+import com.lostsidewalk.buffy.query.QueryDefinition;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+import static com.lostsidewalk.buffy.newsapi.NewsApiImporter.NEWSAPIV2_EVERYTHING;
+import static com.lostsidewalk.buffy.newsapi.NewsApiImporter.NEWSAPIV2_HEADLINES;
+import static java.util.Optional.ofNullable;
+import static java.util.stream.Collectors.joining;
+import static org.apache.commons.collections4.CollectionUtils.isNotEmpty;
+import static org.apache.commons.lang3.StringUtils.*;
+
+/**
+ * Normalized form of the parameters of a NewsAPI request.  Query definitions that resolve to equal requests
+ * are interchangeable, and are fetched once per import.
+ */
+record NewsApiRequest(String queryType, String queryText, String language, String sources, String country, String category,
+                      String from, Integer page, Integer pageSize) {
+
+    static NewsApiRequest from(QueryDefinition queryDefinition) {
+        return from(queryDefinition.getQueryType(), queryDefinition.getQueryText(), queryDefinition.getQueryConfig());
+    }
+
+    static NewsApiRequest from(String queryType, String queryText, Object queryConfig) {
+        String normalizedType = upperCase(trimToNull(queryType));
+        if (!equalsAny(normalizedType, NEWSAPIV2_EVERYTHING, NEWSAPIV2_HEADLINES)) {
+            throw new IllegalArgumentException("Query type not supported: " + queryType);
+        }
+        // query expression
+        String q = trimToNull(normalizeSpace(queryText));
+        // query sources
+        JsonObject queryConfigObj = ofNullable(queryConfig)
+                .map(Object::toString)
+                .map(s -> GSON.fromJson(s, JsonObject.class))
+                .orElse(null);
+        String sources = null;
+        JsonArray sourcesArr = getArrayProperty(queryConfigObj, "sources");
+        if (sourcesArr != null) {
+            List<NewsApiSources> sourcesList = GSON.fromJson(sourcesArr, NEWSAPI_SOURCES_TYPE);
+            if (isNotEmpty(sourcesList)) {
+                sources = sourcesList.stream().map(s -> s.name).distinct().sorted().collect(joining(","));
+            }
+        }
+        // query language (ar de en es fr he it nl no pt ru sv ud zh)
+        String language = ofNullable(trimToNull(getStringProperty(queryConfigObj, "language")))
+                .map(l -> NewsApiLanguages.valueOf(l).code)
+                .orElse(null);
+        String country = null;
+        String category = null;
+        // country and category only apply to headlines, and can't be combined with sources
+        if (NEWSAPIV2_HEADLINES.equals(normalizedType) && sources == null) {
+            country = ofNullable(trimToNull(getStringProperty(queryConfigObj, "country")))
+                    .map(c -> NewsApiCountries.valueOf(c).code)
+                    .orElse(null);
+            // query category (business, entertainment, general, health, science, sports, technology)
+            category = ofNullable(trimToNull(getStringProperty(queryConfigObj, "category")))
+                    .map(c -> NewsApiCategories.valueOf(c).name)
+                    .orElse(null);
+        }
+
+        return new NewsApiRequest(normalizedType, q, language, sources, country, category, null, null, null);
+    }
+
+    NewsApiRequest withFrom(String from) {
+        return new NewsApiRequest(queryType, queryText, language, sources, country, category, from, page, pageSize);
+    }
+
+    NewsApiRequest withPage(int page, int pageSize) {
+        return new NewsApiRequest(queryType, queryText, language, sources, country, category, from, page, pageSize);
+    }
+
+    EverythingRequest toEverythingRequest() {
+        EverythingRequest.Builder builder = new EverythingRequest.Builder();
+        if (queryText != null) {
+            builder.q(queryText);
+        }
+        if (language != null) {
+            builder.language(language);
+        }
+        if (sources != null) {
+            builder.sources(sources);
+        }
+        if (from != null) {
+            builder.from(from);
+        }
+        if (page != null) {
+            builder.page(page);
+        }
+        if (pageSize != null) {
+            builder.pageSize(pageSize);
+        }
+        return builder.build();
+    }
+
+    TopHeadlinesRequest toTopHeadlinesRequest() {
+        TopHeadlinesRequest.Builder builder = new TopHeadlinesRequest.Builder();
+        if (queryText != null) {
+            builder.q(queryText);
+        }
+        if (language != null) {
+            builder.language(language);
+        }
+        if (sources != null) {
+            builder.sources(sources);
+        }
+        if (country != null) {
+            builder.country(country);
+        }
+        if (category != null) {
+            builder.category(category);
+        }
+        if (page != null) {
+            builder.page(page);
+        }
+        if (pageSize != null) {
+            builder.pageSize(pageSize);
+        }
+        return builder.build();
+    }
+
+    private static String getStringProperty(JsonObject obj, String propName) {
+        return obj != null && obj.has(propName) ? obj.get(propName).getAsString() : null;
+    }
+
+    private static JsonArray getArrayProperty(JsonObject obj, @SuppressWarnings("SameParameterValue") String propName) {
+        return obj != null && obj.has(propName) ? obj.get(propName).getAsJsonArray() : null;
+    }
+
+    private static final Type NEWSAPI_SOURCES_TYPE = new TypeToken<List<NewsApiSources>>() {}.getType();
+
+    private static final Gson GSON = new Gson();
+}
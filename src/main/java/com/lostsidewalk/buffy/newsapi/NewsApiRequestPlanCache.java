@@ -0,0 +1,76 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import com.lostsidewalk.buffy.query.QueryDefinition;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Parsed requests by query id.  An entry is reused as long as the query's type, text and config are unchanged,
+ * so query configuration is parsed once rather than on every import.  Parse failures are cached as well.
+ */
+class NewsApiRequestPlanCache {
+
+    record Plan(NewsApiRequest request, String error) {
+
+        boolean isValid() {
+            return request != null;
+        }
+    }
+
+    // unreported is set until the plan has been handed out by getPlan
+    private record Entry(String queryType, String queryText, Object queryConfig, Plan plan, AtomicBoolean unreported) {
+
+        boolean matches(QueryDefinition q) {
+            return Objects.equals(queryType, q.getQueryType())
+                    && Objects.equals(queryText, q.getQueryText())
+                    && Objects.equals(queryConfig, q.getQueryConfig());
+        }
+    }
+
+    // the result of a plan lookup; isNew is true when the query's config was (re)parsed
+    record Lookup(Plan plan, boolean isNew) {}
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    Lookup getPlan(QueryDefinition queryDefinition) {
+        Entry entry = getEntry(queryDefinition);
+        return new Lookup(entry.plan(), entry.unreported().getAndSet(false));
+    }
+
+    // the plan, without consuming isNew: the next getPlan still reports a (re)parsed plan as new
+    Plan peekPlan(QueryDefinition queryDefinition) {
+        return getEntry(queryDefinition).plan();
+    }
+
+    private Entry getEntry(QueryDefinition queryDefinition) {
+        Long queryId = queryDefinition.getId();
+        Entry entry = queryId == null ? null : entries.get(queryId);
+        if (entry != null && entry.matches(queryDefinition)) {
+            return entry;
+        }
+        Plan plan;
+        try {
+            plan = new Plan(NewsApiRequest.from(queryDefinition), null);
+        } catch (Exception e) {
+            plan = new Plan(null, e.getClass().getSimpleName() + ": " + e.getMessage());
+        }
+        entry = new Entry(queryDefinition.getQueryType(), queryDefinition.getQueryText(), queryDefinition.getQueryConfig(), plan, new AtomicBoolean(true));
+        if (queryId != null) {
+            entries.put(queryId, entry);
+        }
+        return entry;
+    }
+
+    // drop plans for queries that no longer exist
+    void retainAll(Set<Long> queryIds) {
+        entries.keySet().retainAll(queryIds);
+    }
+
+    int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,246 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.kwabenaberko.newsapilib.models.Article;
+import com.kwabenaberko.newsapilib.models.Source;
+import com.kwabenaberko.newsapilib.models.response.ArticleResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Decodes NewsAPI responses from a stream, field by field, straight into the client library's model.  In streaming
+ * mode each article is handed off as soon as it's decoded, along with its canonical JSON (for hashing), so only one
+ * article of the response is held at a time.
+ */
+class NewsApiResponseReader {
+
+    // the fields of a NewsAPI response envelope; code and message are only present on errors
+    record Envelope(String status, int totalResults, String code, String message) {
+
+        boolean isOk() {
+            return "ok".equals(status);
+        }
+    }
+
+    static ArticleResponse readArticleResponse(InputStream inputStream) throws IOException {
+        List<Article> articles = new ArrayList<>();
+        ArticleResponse articleResponse = readArticles(inputStream, (article, canonicalJson) -> articles.add(article), false);
+        articleResponse.setArticles(articles);
+        return articleResponse;
+    }
+
+    // the returned response has the envelope fields only; the articles have gone to the stream
+    static ArticleResponse streamArticleResponse(InputStream inputStream, NewsApiArticleStream articleStream) throws IOException {
+        ArticleResponse articleResponse = readArticles(inputStream, articleStream, true);
+        articleResponse.setArticles(new ArrayList<>());
+        return articleResponse;
+    }
+
+    private static ArticleResponse readArticles(InputStream inputStream, NewsApiArticleStream articleStream, boolean captureCanonicalJson) throws IOException {
+        Envelope envelope;
+        try (JsonReader reader = new JsonReader(new InputStreamReader(inputStream, UTF_8))) {
+            envelope = readEnvelope(reader, articleStream, captureCanonicalJson ? new CanonicalJson() : null);
+        }
+        if (!envelope.isOk()) {
+            throw new NewsApiQueryException(toErrorType(envelope.code()), envelope.code() + ": " + envelope.message());
+        }
+        ArticleResponse articleResponse = new ArticleResponse();
+        articleResponse.setStatus(envelope.status());
+        articleResponse.setTotalResults(envelope.totalResults());
+        return articleResponse;
+    }
+
+    private static Envelope readEnvelope(JsonReader reader, NewsApiArticleStream articleStream, CanonicalJson canonicalJson) throws IOException {
+        String status = null;
+        int totalResults = 0;
+        String code = null;
+        String message = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "status" -> status = nextString(reader);
+                case "totalResults" -> totalResults = reader.nextInt();
+                case "code" -> code = nextString(reader);
+                case "message" -> message = nextString(reader);
+                case "articles" -> {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        if (canonicalJson != null) {
+                            canonicalJson.begin();
+                        }
+                        Article article = readArticle(reader, canonicalJson);
+                        articleStream.onArticle(article, canonicalJson != null ? canonicalJson.end() : null);
+                    }
+                    reader.endArray();
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new Envelope(status, totalResults, code, message);
+    }
+
+    // field indexes follow the declaration order of Article and Source, which is the order Gson writes them in
+    private static Article readArticle(JsonReader reader, CanonicalJson canonicalJson) throws IOException {
+        Article article = new Article();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            switch (name) {
+                case "source" -> article.setSource(readSource(reader, canonicalJson));
+                case "author" -> article.setAuthor(nextString(reader, canonicalJson, 1, name));
+                case "title" -> article.setTitle(nextString(reader, canonicalJson, 2, name));
+                case "description" -> article.setDescription(nextString(reader, canonicalJson, 3, name));
+                case "url" -> article.setUrl(nextString(reader, canonicalJson, 4, name));
+                case "urlToImage" -> article.setUrlToImage(nextString(reader, canonicalJson, 5, name));
+                case "publishedAt" -> article.setPublishedAt(nextString(reader, canonicalJson, 6, name));
+                case "content" -> article.setContent(nextString(reader, canonicalJson, 7, name));
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return article;
+    }
+
+    private static Source readSource(JsonReader reader, CanonicalJson canonicalJson) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        Source source = new Source();
+        if (canonicalJson != null) {
+            canonicalJson.beginSource();
+        }
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            switch (name) {
+                case "id" -> source.setId(nextString(reader, canonicalJson, 0, name));
+                case "name" -> source.setName(nextString(reader, canonicalJson, 1, name));
+                case "description" -> source.setDescription(nextString(reader, canonicalJson, 2, name));
+                case "url" -> source.setUrl(nextString(reader, canonicalJson, 3, name));
+                case "category" -> source.setCategory(nextString(reader, canonicalJson, 4, name));
+                case "language" -> source.setLanguage(nextString(reader, canonicalJson, 5, name));
+                case "country" -> source.setCountry(nextString(reader, canonicalJson, 6, name));
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (canonicalJson != null) {
+            canonicalJson.endSource();
+        }
+        return source;
+    }
+
+    private static String nextString(JsonReader reader, CanonicalJson canonicalJson, int fieldIndex, String name) throws IOException {
+        String value = nextString(reader);
+        if (canonicalJson != null) {
+            canonicalJson.string(fieldIndex, name, value);
+        }
+        return value;
+    }
+
+    private static String nextString(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return reader.nextString();
+    }
+
+    /**
+     * Writes the canonical JSON of an article as its fields are read.  Gson writes fields in declaration order and
+     * omits nulls; as long as the response lists fields in that order (NewsAPI does), the bytes written here are
+     * identical.  Otherwise capture is abandoned and the hasher falls back to serializing the article.
+     */
+    private static class CanonicalJson {
+
+        private final StringWriter out = new StringWriter(4096);
+
+        private JsonWriter writer;
+
+        private int lastField;
+
+        private int lastSourceField;
+
+        private boolean inSource;
+
+        private boolean inOrder;
+
+        void begin() throws IOException {
+            out.getBuffer().setLength(0);
+            writer = new JsonWriter(out);
+            writer.setSerializeNulls(false);
+            writer.beginObject();
+            lastField = -1;
+            inSource = false;
+            inOrder = true;
+        }
+
+        boolean field(int fieldIndex) {
+            if (inSource) {
+                inOrder &= fieldIndex > lastSourceField;
+                lastSourceField = fieldIndex;
+            } else {
+                inOrder &= fieldIndex > lastField;
+                lastField = fieldIndex;
+            }
+            return inOrder;
+        }
+
+        // nulls are omitted, so their position doesn't matter
+        void string(int fieldIndex, String name, String value) throws IOException {
+            if (value != null && field(fieldIndex)) {
+                writer.name(name).value(value);
+            }
+        }
+
+        void beginSource() throws IOException {
+            if (field(0)) {
+                writer.name("source").beginObject();
+            }
+            inSource = true;
+            lastSourceField = -1;
+        }
+
+        void endSource() throws IOException {
+            inSource = false;
+            if (inOrder) {
+                writer.endObject();
+            }
+        }
+
+        String end() throws IOException {
+            if (!inOrder) {
+                return null;
+            }
+            writer.endObject();
+            writer.flush();
+            return out.toString();
+        }
+    }
+
+    // https://newsapi.org/docs/errors
+    static NewsApiErrorType toErrorType(String code) {
+        if (code == null) {
+            return NewsApiErrorType.OTHER;
+        }
+        return switch (code) {
+            case "apiKeyExhausted" -> NewsApiErrorType.QUOTA_EXHAUSTED;
+            case "apiKeyDisabled", "apiKeyInvalid", "apiKeyMissing" -> NewsApiErrorType.AUTH;
+            case "rateLimited" -> NewsApiErrorType.RATE_LIMITED;
+            case "unexpectedError" -> NewsApiErrorType.SERVER;
+            case "parameterInvalid", "parametersMissing", "sourcesTooMany", "sourceDoesNotExist" -> NewsApiErrorType.CLIENT;
+            default -> NewsApiErrorType.OTHER;
+        };
+    }
+}
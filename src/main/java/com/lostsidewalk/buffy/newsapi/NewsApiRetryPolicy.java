@@ -0,0 +1,15 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with full jitter: the delay before retry n is uniformly distributed in
+ * [0, min(maxDelay, baseDelay * 2^n)).
+ */
+record NewsApiRetryPolicy(int maxRetries, long baseDelayMillis, long maxDelayMillis) {
+
+    long backoffMillis(int attempt) {
+        long ceiling = Math.min(maxDelayMillis, baseDelayMillis << Math.min(attempt, 20));
+        return ceiling > 0L ? ThreadLocalRandom.current().nextLong(ceiling) : 0L;
+    }
+}
@@ -0,0 +1,365 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import com.google.common.hash.Hashing;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Memory-mapped set of post hashes produced by earlier imports, used to skip articles without asking the database.
+ * <p>
+ * The file is a 64-byte header followed by a fixed-size open addressing (linear probing) table of 20-byte slots:
+ * the 128-bit post hash, then the generation it was last seen in (added, or found by a lookup).  A slot is empty
+ * while its generation is 0.  Each import advances the generation, and entries not seen for retainGenerations
+ * generations are purged in place, at most once per generation.  All data lives in the mapping, so the index adds
+ * nothing to the heap.
+ * <p>
+ * Lookups share a read lock, so importer workers don't serialize on them; inserts, purges and generation changes
+ * take the write lock.  A lookup that finds a live entry refreshes its generation under the read lock: the
+ * generation is a single aligned int, every concurrent writer stores the same value, and entries only move under
+ * the write lock.
+ * <p>
+ * Slots aren't written atomically with respect to a crash (the mapping is flushed page by page, and a slot can
+ * straddle pages), and a crash mid-purge can leave entries out of place.  The damage is bounded: the index is
+ * recounted when it wasn't closed cleanly, a torn key matches nothing, and an entry lost or misplaced only means
+ * that article is imported again.
+ */
+@Slf4j
+class NewsApiSeenIndex implements Closeable {
+
+    private static final long MAGIC = 0x4E41504953454E31L; // "NAPISEN1"
+
+    private static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 64;
+
+    private static final int SLOT_SIZE = 20;
+
+    private static final int OFFSET_MAGIC = 0;
+
+    private static final int OFFSET_VERSION = 8;
+
+    private static final int OFFSET_GENERATION = 12;
+
+    private static final int OFFSET_CAPACITY = 16;
+
+    private static final int OFFSET_SIZE = 24;
+
+    private static final int OFFSET_CLEAN = 32;
+
+    private static final double MAX_LOAD_FACTOR = 0.75;
+
+    private final Path file;
+
+    private final FileChannel channel;
+
+    private final MappedByteBuffer buffer;
+
+    private final int capacity;
+
+    private final int mask;
+
+    private final int retainGenerations;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private int generation;
+
+    private int size;
+
+    // the generation of the last purge; a full index isn't scanned again until the next generation
+    private int purgedGeneration;
+
+    NewsApiSeenIndex(Path file, int capacity, int retainGenerations) throws IOException {
+        if (Integer.bitCount(capacity) != 1 || (long) capacity * SLOT_SIZE + HEADER_SIZE > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Seen index capacity must be a power of 2 no larger than 2^26: " + capacity);
+        }
+        this.file = file;
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.retainGenerations = retainGenerations;
+        long fileSize = HEADER_SIZE + (long) capacity * SLOT_SIZE;
+        boolean exists = Files.exists(file) && Files.size(file) == fileSize;
+        this.channel = FileChannel.open(file, CREATE, READ, WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+        if (exists && buffer.getLong(OFFSET_MAGIC) == MAGIC && buffer.getInt(OFFSET_VERSION) == VERSION
+                && buffer.getLong(OFFSET_CAPACITY) == capacity) {
+            this.generation = buffer.getInt(OFFSET_GENERATION);
+            if (buffer.getInt(OFFSET_CLEAN) == 1) {
+                this.size = (int) buffer.getLong(OFFSET_SIZE);
+            } else {
+                log.warn("Seen index {} was not closed cleanly, recounting entries", file);
+                this.size = countOccupied();
+            }
+            log.info("Opened seen index {}: capacity={}, size={}, generation={}", file, capacity, size, generation);
+        } else {
+            log.info("Creating seen index {}: capacity={}", file, capacity);
+            for (int i = 0; i < capacity; i++) {
+                buffer.putInt(slotOffset(i) + 16, 0);
+            }
+            buffer.putLong(OFFSET_MAGIC, MAGIC);
+            buffer.putInt(OFFSET_VERSION, VERSION);
+            buffer.putLong(OFFSET_CAPACITY, capacity);
+            this.generation = 1;
+            this.size = 0;
+            writeHeader();
+        }
+        buffer.putInt(OFFSET_CLEAN, 0);
+    }
+
+    //
+    // lookup/insert
+    //
+
+    boolean contains(String postHash) {
+        long hi = high(postHash);
+        long lo = low(postHash);
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            int slot = find(hi, lo);
+            if (slot < 0) {
+                return false;
+            }
+            int gen = generationAt(slot);
+            if (!isLive(gen)) {
+                return false;
+            }
+            // a recurring article stays live for as long as it keeps turning up
+            if (gen != generation) {
+                buffer.putInt(slotOffset(slot) + 16, generation);
+            }
+            return true;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    void add(String postHash) {
+        long hi = high(postHash);
+        long lo = low(postHash);
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            int slot = find(hi, lo);
+            if (slot >= 0) {
+                buffer.putInt(slotOffset(slot) + 16, generation);
+                return;
+            }
+            if (size >= capacity * MAX_LOAD_FACTOR) {
+                if (purgedGeneration == generation) {
+                    return;
+                }
+                purge();
+                if (size >= capacity * MAX_LOAD_FACTOR) {
+                    log.warn("Seen index {} is full, not recording new post hashes until the next generation", file);
+                    return;
+                }
+            }
+            insert(hi, lo, generation);
+            size++;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // slot holding the key, or -1 if absent
+    private int find(long hi, long lo) {
+        for (int i = home(hi, lo), probes = 0; probes < capacity; i = (i + 1) & mask, probes++) {
+            int offset = slotOffset(i);
+            if (buffer.getInt(offset + 16) == 0) {
+                return -1;
+            }
+            if (buffer.getLong(offset) == hi && buffer.getLong(offset + 8) == lo) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void insert(long hi, long lo, int gen) {
+        int i = home(hi, lo);
+        while (buffer.getInt(slotOffset(i) + 16) != 0) {
+            i = (i + 1) & mask;
+        }
+        int offset = slotOffset(i);
+        buffer.putLong(offset, hi);
+        buffer.putLong(offset + 8, lo);
+        buffer.putInt(offset + 16, gen);
+    }
+
+    //
+    // generations
+    //
+
+    void advanceGeneration() {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            generation++;
+            if (size >= capacity * MAX_LOAD_FACTOR / 2) {
+                purge();
+            }
+            writeHeader();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private boolean isLive(int gen) {
+        return gen != 0 && generation - gen < retainGenerations;
+    }
+
+    // clear expired entries, then re-insert the survivors of every cluster so no probe sequence crosses a hole
+    private void purge() {
+        purgedGeneration = generation;
+        int start = -1;
+        int removed = 0;
+        for (int i = 0; i < capacity; i++) {
+            int offset = slotOffset(i);
+            int gen = buffer.getInt(offset + 16);
+            if (gen != 0 && !isLive(gen)) {
+                buffer.putInt(offset + 16, 0);
+                removed++;
+            }
+            if (start < 0 && buffer.getInt(offset + 16) == 0) {
+                start = i;
+            }
+        }
+        if (removed == 0 || start < 0) {
+            return;
+        }
+        for (int n = 1; n <= capacity; n++) {
+            int i = (start + n) & mask;
+            int offset = slotOffset(i);
+            int gen = buffer.getInt(offset + 16);
+            if (gen != 0) {
+                long hi = buffer.getLong(offset);
+                long lo = buffer.getLong(offset + 8);
+                buffer.putInt(offset + 16, 0);
+                insert(hi, lo, gen);
+            }
+        }
+        size -= removed;
+        log.info("Purged {} expired entries from seen index {}, size={}", removed, file, size);
+    }
+
+    //
+    // persistence
+    //
+
+    void flush() {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            writeHeader();
+            buffer.force();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            writeHeader();
+            buffer.putInt(OFFSET_CLEAN, 1);
+            buffer.force();
+            channel.close();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void writeHeader() {
+        buffer.putInt(OFFSET_GENERATION, generation);
+        buffer.putLong(OFFSET_SIZE, size);
+    }
+
+    private int countOccupied() {
+        int ct = 0;
+        for (int i = 0; i < capacity; i++) {
+            if (buffer.getInt(slotOffset(i) + 16) != 0) {
+                ct++;
+            }
+        }
+        return ct;
+    }
+
+    int size() {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return size;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    //
+    // keys
+    //
+
+    private int generationAt(int slot) {
+        return buffer.getInt(slotOffset(slot) + 16);
+    }
+
+    private static int slotOffset(int slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    private int home(long hi, long lo) {
+        long h = (hi ^ lo) * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & mask;
+    }
+
+    // post hashes are 32 hex digits (128 bits); anything else is hashed down to 128 bits
+    private static long high(String postHash) {
+        return isHex128(postHash) ? parseHex(postHash, 0) : Hashing.murmur3_128().hashString(postHash, UTF_8).asLong();
+    }
+
+    private static long low(String postHash) {
+        if (isHex128(postHash)) {
+            return parseHex(postHash, 16);
+        }
+        byte[] b = Hashing.murmur3_128().hashString(postHash, UTF_8).asBytes();
+        long lo = 0L;
+        for (int i = 8; i < 16; i++) {
+            lo = (lo << 8) | (b[i] & 0xFF);
+        }
+        return lo;
+    }
+
+    private static boolean isHex128(String s) {
+        if (s.length() != 32) {
+            return false;
+        }
+        for (int i = 0; i < 32; i++) {
+            if (Character.digit(s.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long parseHex(String s, int offset) {
+        long v = 0L;
+        for (int i = offset; i < offset + 16; i++) {
+            v = (v << 4) | Character.digit(s.charAt(i), 16);
+        }
+        return v;
+    }
+}
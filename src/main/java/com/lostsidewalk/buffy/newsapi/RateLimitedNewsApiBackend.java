@@ -0,0 +1,81 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.kwabenaberko.newsapilib.NewsApiClient;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeoutException;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Shapes outbound requests to the per-second limit of the API key, and sheds requests once the daily budget is
+ * spent.  Shed requests fail with QUOTA_EXHAUSTED, which the importer reports as a skip rather than an error.  A
+ * request that can't get a permit before its deadline fails with a TimeoutException, without spending budget.
+ */
+@Slf4j
+@SuppressWarnings("UnstableApiUsage")
+class RateLimitedNewsApiBackend implements NewsApiBackend {
+
+    private final NewsApiBackend delegate;
+
+    private final RateLimiter rateLimiter;
+
+    private final NewsApiQuotaBudget quotaBudget;
+
+    private final NewsApiMetrics metrics;
+
+    RateLimitedNewsApiBackend(NewsApiBackend delegate, RateLimiter rateLimiter, NewsApiQuotaBudget quotaBudget, NewsApiMetrics metrics) {
+        this.delegate = delegate;
+        this.rateLimiter = rateLimiter;
+        this.quotaBudget = quotaBudget;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void getArticles(NewsApiRequest request, Instant deadline, NewsApiClient.ArticlesResponseCallback callback) {
+        if (admit(request, deadline, callback)) {
+            delegate.getArticles(request, deadline, callback);
+        }
+    }
+
+    @Override
+    public void streamArticles(NewsApiRequest request, Instant deadline, NewsApiArticleStream articleStream, NewsApiClient.ArticlesResponseCallback callback) {
+        if (admit(request, deadline, callback)) {
+            delegate.streamArticles(request, deadline, articleStream, callback);
+        }
+    }
+
+    // a permit first, so that requests that time out waiting for one don't spend budget
+    private boolean admit(NewsApiRequest request, Instant deadline, NewsApiClient.ArticlesResponseCallback callback) {
+        if (rateLimiter != null) {
+            long startNanos = System.nanoTime();
+            if (deadline == null) {
+                rateLimiter.acquire();
+            } else if (!rateLimiter.tryAcquire(Math.max(0L, Duration.between(Instant.now(), deadline).toNanos()), NANOSECONDS)) {
+                callback.onFailure(new TimeoutException("Import deadline reached before the rate limiter admitted the request"));
+                return false;
+            }
+            double waitSecs = (System.nanoTime() - startNanos) / 1e9;
+            metrics.recordRateLimiterWait(waitSecs);
+            if (waitSecs > 0.001) {
+                log.debug("Rate limiter delayed request by {}s, request={}", waitSecs, request);
+            }
+        }
+        if (quotaBudget != null && !quotaBudget.tryConsume()) {
+            callback.onFailure(new NewsApiQueryException(NewsApiErrorType.QUOTA_EXHAUSTED, "Daily request budget exhausted"));
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void logStats() {
+        if (quotaBudget != null) {
+            log.info("NewsAPI V2 daily request budget: remainingCt={}", quotaBudget.getRemaining());
+        }
+        delegate.logStats();
+    }
+}
@@ -0,0 +1,144 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import com.kwabenaberko.newsapilib.NewsApiClient;
+import com.kwabenaberko.newsapilib.models.response.ArticleResponse;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Spreads requests over several API keys, each with its own backend (client, rate limit and daily budget).
+ * Requests are assigned to keys by consistent hashing, so a given request keeps going to the same key, and adding or
+ * removing a key only moves that key's share of the requests.  A key that reports its quota exhausted, or that is
+ * rejected (revoked, disabled), is taken out of rotation for a while, and its requests fail over to the next key on
+ * the ring.
+ */
+@Slf4j
+class ShardedNewsApiBackend implements NewsApiBackend {
+
+    static class Shard {
+
+        private final String name;
+
+        private final String apiKey;
+
+        private final NewsApiBackend backend;
+
+        private volatile Instant disabledUntil = Instant.MIN;
+
+        Shard(String name, String apiKey, NewsApiBackend backend) {
+            this.name = name;
+            this.apiKey = apiKey;
+            this.backend = backend;
+        }
+
+        private boolean isAvailable(Instant now) {
+            return !now.isBefore(disabledUntil);
+        }
+    }
+
+    // a rejected key is re-tried after this long, in case it was re-enabled
+    private static final Duration AUTH_FAILURE_COOL_DOWN = Duration.ofHours(1);
+
+    private final List<Shard> shards;
+
+    private final NewsApiHashRing<Shard> ring;
+
+    private final Clock clock;
+
+    ShardedNewsApiBackend(List<Shard> shards, Clock clock) {
+        this.shards = List.copyOf(shards);
+        this.clock = clock;
+        // ring positions derive from the key itself (not its position in the list), so that re-ordering the
+        // configured keys doesn't move any requests
+        Map<String, Shard> shardsByKey = new LinkedHashMap<>();
+        this.shards.forEach(s -> shardsByKey.put(s.apiKey, s));
+        this.ring = new NewsApiHashRing<>(shardsByKey);
+    }
+
+    @Override
+    public void getArticles(NewsApiRequest request, Instant deadline, NewsApiClient.ArticlesResponseCallback callback) {
+        send(request, candidates(request), (b, c) -> b.getArticles(request, deadline, c), callback);
+    }
+
+    // quota and auth failures are reported before any article is streamed, so failing over can't duplicate articles
+    @Override
+    public void streamArticles(NewsApiRequest request, Instant deadline, NewsApiArticleStream articleStream, NewsApiClient.ArticlesResponseCallback callback) {
+        send(request, candidates(request), (b, c) -> b.streamArticles(request, deadline, articleStream, c), callback);
+    }
+
+    private interface ShardCall {
+
+        void call(NewsApiBackend backend, NewsApiClient.ArticlesResponseCallback callback);
+    }
+
+    private void send(NewsApiRequest request, Iterator<Shard> candidates, ShardCall shardCall, NewsApiClient.ArticlesResponseCallback callback) {
+        Instant now = clock.instant();
+        Shard shard = null;
+        while (candidates.hasNext() && shard == null) {
+            Shard candidate = candidates.next();
+            if (candidate.isAvailable(now)) {
+                shard = candidate;
+            }
+        }
+        if (shard == null) {
+            callback.onFailure(new NewsApiQueryException(NewsApiErrorType.QUOTA_EXHAUSTED, "No API key is available"));
+            return;
+        }
+        Shard selected = shard;
+        shardCall.call(selected.backend, new NewsApiClient.ArticlesResponseCallback() {
+            @Override
+            public void onSuccess(ArticleResponse response) {
+                callback.onSuccess(response);
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                NewsApiErrorType errorType = NewsApiErrorType.classify(throwable);
+                if (errorType == NewsApiErrorType.QUOTA_EXHAUSTED || errorType == NewsApiErrorType.AUTH) {
+                    disable(selected, errorType);
+                    send(request, candidates, shardCall, callback);
+                } else {
+                    callback.onFailure(throwable);
+                }
+            }
+        });
+    }
+
+    private Iterator<Shard> candidates(NewsApiRequest request) {
+        return ring.getCandidates(request.toString());
+    }
+
+    private void disable(Shard shard, NewsApiErrorType errorType) {
+        Instant now = clock.instant();
+        // daily budgets reset at the start of the day, as in NewsApiQuotaBudget
+        Instant disabledUntil = errorType == NewsApiErrorType.QUOTA_EXHAUSTED ?
+                LocalDate.now(clock).plusDays(1).atStartOfDay(clock.getZone()).toInstant() :
+                now.plus(AUTH_FAILURE_COOL_DOWN);
+        if (shard.isAvailable(now)) {
+            log.warn("NewsAPI V2 API key {} taken out of rotation until {}, errorType={}", shard.name, disabledUntil, errorType);
+        }
+        shard.disabledUntil = disabledUntil;
+    }
+
+    int getAvailableCount() {
+        Instant now = clock.instant();
+        return (int) shards.stream().filter(s -> s.isAvailable(now)).count();
+    }
+
+    @Override
+    public void logStats() {
+        Instant now = clock.instant();
+        for (Shard shard : shards) {
+            log.info("NewsAPI V2 API key {}: available={}", shard.name, shard.isAvailable(now));
+            shard.backend.logStats();
+        }
+    }
+}
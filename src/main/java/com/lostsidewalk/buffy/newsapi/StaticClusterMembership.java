@@ -0,0 +1,31 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+// a fixed cluster of nodes node-0 .. node-(n-1); membership changes when the configured node count does
+class StaticClusterMembership implements NewsApiClusterMembership {
+
+    private final String localNodeId;
+
+    private final List<String> members;
+
+    StaticClusterMembership(int nodeId, int nodeCount) {
+        this.localNodeId = nodeName(nodeId);
+        this.members = IntStream.range(0, nodeCount).mapToObj(StaticClusterMembership::nodeName).toList();
+    }
+
+    private static String nodeName(int nodeId) {
+        return "node-" + nodeId;
+    }
+
+    @Override
+    public String getLocalNodeId() {
+        return localNodeId;
+    }
+
+    @Override
+    public List<String> getMembers() {
+        return members;
+    }
+}
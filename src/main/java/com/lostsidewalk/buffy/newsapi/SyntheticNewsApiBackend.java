@@ -0,0 +1,57 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import com.kwabenaberko.newsapilib.NewsApiClient;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static java.util.concurrent.Executors.newThreadPerTaskExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Stands in for NewsAPI with generated responses, for load testing without network access or quota.  Responses
+ * arrive after an exponentially distributed delay (with the configured mean), and a configured share of requests
+ * fail with a transient error.
+ */
+class SyntheticNewsApiBackend implements NewsApiBackend {
+
+    private final NewsApiMockDataGenerator generator;
+
+    private final long meanLatencyMillis;
+
+    private final double failureRate;
+
+    // completes callbacks off the caller's thread, like the real clients
+    private final Executor callbackExecutor = newThreadPerTaskExecutor(Thread.ofVirtual().name("newsapiv2-synthetic-", 0).factory());
+
+    SyntheticNewsApiBackend(NewsApiMockDataGenerator generator, long meanLatencyMillis, double failureRate) {
+        this.generator = generator;
+        this.meanLatencyMillis = meanLatencyMillis;
+        this.failureRate = failureRate;
+    }
+
+    @Override
+    public void getArticles(NewsApiRequest request, Instant deadline, NewsApiClient.ArticlesResponseCallback callback) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long latencyMillis = meanLatencyMillis > 0L ? (long) (-Math.log(1.0 - random.nextDouble()) * meanLatencyMillis) : 0L;
+        boolean fail = random.nextDouble() < failureRate;
+        CompletableFuture.delayedExecutor(latencyMillis, MILLISECONDS, callbackExecutor).execute(() -> {
+            if (fail) {
+                callback.onFailure(syntheticFailure());
+            } else {
+                callback.onSuccess(generator.buildMockResponse(request));
+            }
+        });
+    }
+
+    private static Throwable syntheticFailure() {
+        return switch (ThreadLocalRandom.current().nextInt(3)) {
+            case 0 -> new NewsApiQueryException(NewsApiErrorType.SERVER, "unexpectedError: synthetic server error");
+            case 1 -> new NewsApiQueryException(NewsApiErrorType.RATE_LIMITED, "rateLimited: synthetic rate limit");
+            default -> new IOException("Synthetic connection reset");
+        };
+    }
+}
@@ -0,0 +1,85 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import com.kwabenaberko.newsapilib.NewsApiClient;
+import com.kwabenaberko.newsapilib.models.Article;
+import com.kwabenaberko.newsapilib.models.response.ArticleResponse;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Times the round trips of successful requests to NewsAPI itself.  It wraps the transport, beneath the rate limiter
+ * and the response cache, so the samples exclude rate limiter waits and cache hits; the importer's concurrency
+ * limiter adapts to these samples only.  A streamed response's round trip ends when the response arrives (its
+ * headers); consuming the body, which includes converting its articles, is timed separately.
+ */
+class TimedNewsApiBackend implements NewsApiBackend {
+
+    private final NewsApiBackend delegate;
+
+    private final NewsApiMetrics metrics;
+
+    TimedNewsApiBackend(NewsApiBackend delegate, NewsApiMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void getArticles(NewsApiRequest request, Instant deadline, NewsApiClient.ArticlesResponseCallback callback) {
+        delegate.getArticles(request, deadline, timing(callback));
+    }
+
+    @Override
+    public void streamArticles(NewsApiRequest request, Instant deadline, NewsApiArticleStream articleStream, NewsApiClient.ArticlesResponseCallback callback) {
+        long startNanos = System.nanoTime();
+        AtomicLong responseNanos = new AtomicLong(-1L);
+        NewsApiArticleStream timedStream = new NewsApiArticleStream() {
+            @Override
+            public void onResponse() {
+                responseNanos.compareAndSet(-1L, System.nanoTime());
+                articleStream.onResponse();
+            }
+
+            @Override
+            public void onArticle(Article article, String canonicalJson) {
+                articleStream.onArticle(article, canonicalJson);
+            }
+        };
+        delegate.streamArticles(request, deadline, timedStream, new NewsApiClient.ArticlesResponseCallback() {
+            @Override
+            public void onSuccess(ArticleResponse response) {
+                long endNanos = System.nanoTime();
+                long arrivedNanos = responseNanos.get() < 0L ? endNanos : responseNanos.get();
+                metrics.recordUpstreamRoundTrip(arrivedNanos - startNanos);
+                metrics.recordUpstreamBody(endNanos - arrivedNanos);
+                callback.onSuccess(response);
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                callback.onFailure(throwable);
+            }
+        });
+    }
+
+    private NewsApiClient.ArticlesResponseCallback timing(NewsApiClient.ArticlesResponseCallback callback) {
+        long startNanos = System.nanoTime();
+        return new NewsApiClient.ArticlesResponseCallback() {
+            @Override
+            public void onSuccess(ArticleResponse response) {
+                metrics.recordUpstreamRoundTrip(System.nanoTime() - startNanos);
+                callback.onSuccess(response);
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                callback.onFailure(throwable);
+            }
+        };
+    }
+
+    @Override
+    public void logStats() {
+        delegate.logStats();
+    }
+}
@@ -0,0 +1,106 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import com.kwabenaberko.newsapilib.NewsApiClient;
+import com.kwabenaberko.newsapilib.models.Article;
+import com.kwabenaberko.newsapilib.models.response.ArticleResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingNewsApiBackendTest {
+
+    private static final NewsApiRequest REQUEST = NewsApiRequest.from(NewsApiImporter.NEWSAPIV2_EVERYTHING, "climate", null);
+
+    private final List<String> calls = new ArrayList<>();
+
+    private static ArticleResponse response() {
+        ArticleResponse response = new ArticleResponse();
+        response.setStatus("ok");
+        response.setTotalResults(30);
+        response.setArticles(IntStream.range(0, 3).mapToObj(i -> {
+            Article article = new Article();
+            article.setTitle("Title " + i);
+            return article;
+        }).toList());
+        return response;
+    }
+
+    private final NewsApiBackend upstream = new NewsApiBackend() {
+        @Override
+        public void getArticles(NewsApiRequest request, Instant deadline, NewsApiClient.ArticlesResponseCallback callback) {
+            calls.add("getArticles");
+            callback.onSuccess(response());
+        }
+
+        @Override
+        public void streamArticles(NewsApiRequest request, Instant deadline, NewsApiArticleStream articleStream,
+                                   NewsApiClient.ArticlesResponseCallback callback) {
+            calls.add("streamArticles");
+            ArticleResponse response = response();
+            articleStream.onResponse();
+            response.getArticles().forEach(a -> articleStream.onArticle(a, "{}"));
+            response.setArticles(List.of());
+            callback.onSuccess(response);
+        }
+    };
+
+    private final CachingNewsApiBackend backend = new CachingNewsApiBackend(upstream, Duration.ofMinutes(5), 100L, new NewsApiMetrics(null));
+
+    private static NewsApiClient.ArticlesResponseCallback completing(CompletableFuture<ArticleResponse> future) {
+        return new NewsApiClient.ArticlesResponseCallback() {
+            @Override
+            public void onSuccess(ArticleResponse response) {
+                future.complete(response);
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                future.completeExceptionally(throwable);
+            }
+        };
+    }
+
+    private ArticleResponse stream(List<String> titles) throws Exception {
+        CompletableFuture<ArticleResponse> envelope = new CompletableFuture<>();
+        backend.streamArticles(REQUEST, null, (article, canonicalJson) -> titles.add(article.getTitle()), completing(envelope));
+        return envelope.get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void testStreamedMissIsStreamedFromTheDelegateAndNotCached() throws Exception {
+        List<String> titles = new ArrayList<>();
+
+        ArticleResponse envelope = stream(titles);
+        stream(new ArrayList<>());
+
+        assertEquals(List.of("streamArticles", "streamArticles"), calls);
+        assertEquals(List.of("Title 0", "Title 1", "Title 2"), titles);
+        assertTrue(envelope.getArticles().isEmpty());
+        assertEquals(0L, backend.getStats().hitCount());
+    }
+
+    @Test
+    void testStreamedHitReplaysTheCachedResponse() throws Exception {
+        CompletableFuture<ArticleResponse> response = new CompletableFuture<>();
+        backend.getArticles(REQUEST, null, completing(response));
+        response.get(1, TimeUnit.SECONDS);
+        List<String> titles = new ArrayList<>();
+
+        ArticleResponse envelope = stream(titles);
+
+        assertEquals(List.of("getArticles"), calls);
+        assertEquals(List.of("Title 0", "Title 1", "Title 2"), titles);
+        assertEquals(30, envelope.getTotalResults());
+        assertTrue(envelope.getArticles().isEmpty());
+        // the cached response is left intact
+        assertEquals(3, response.get().getArticles().size());
+    }
+}
@@ -0,0 +1,55 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileHighWaterMarkStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static NewsApiHighWaterMark mark(String postHash) {
+        return NewsApiHighWaterMark.empty().advance(Instant.parse("2023-01-01T00:00:00Z"), List.of(postHash), 10);
+    }
+
+    @Test
+    void testMarksOfDeletedQueriesAreDropped() {
+        Path file = tempDir.resolve("marks.json");
+        FileHighWaterMarkStore store = new FileHighWaterMarkStore(file);
+        store.put(1L, mark("A"));
+        store.put(2L, mark("B"));
+        store.flush();
+
+        store.retainAll(Set.of(2L));
+        store.flush();
+
+        FileHighWaterMarkStore reloaded = new FileHighWaterMarkStore(file);
+        assertNull(reloaded.get(1L));
+        assertTrue(reloaded.get(2L).isKnown("B"));
+    }
+
+    @Test
+    void testUnchangedMarksAreNotRewritten() throws Exception {
+        Path file = tempDir.resolve("marks.json");
+        FileHighWaterMarkStore store = new FileHighWaterMarkStore(file);
+        store.put(1L, mark("A"));
+        store.flush();
+        Files.delete(file);
+
+        store.retainAll(Set.of(1L));
+        store.flush();
+        assertFalse(Files.exists(file));
+
+        store.put(1L, mark("B"));
+        store.flush();
+        assertTrue(Files.exists(file));
+    }
+}
@@ -0,0 +1,33 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * An in-process stand-in for a coordination service, for tests: importers in the same JVM join a shared group, and
+ * see each other join and leave.
+ */
+class InMemoryClusterMembership {
+
+    private final Set<String> members = new ConcurrentSkipListSet<>();
+
+    NewsApiClusterMembership join(String nodeId) {
+        members.add(nodeId);
+        return new NewsApiClusterMembership() {
+            @Override
+            public String getLocalNodeId() {
+                return nodeId;
+            }
+
+            @Override
+            public List<String> getMembers() {
+                return List.copyOf(members);
+            }
+        };
+    }
+
+    void leave(String nodeId) {
+        members.remove(nodeId);
+    }
+}
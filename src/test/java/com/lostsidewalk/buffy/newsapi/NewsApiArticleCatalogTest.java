@@ -0,0 +1,89 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import com.kwabenaberko.newsapilib.models.Article;
+import com.kwabenaberko.newsapilib.models.Source;
+import com.kwabenaberko.newsapilib.models.response.ArticleResponse;
+import com.lostsidewalk.buffy.post.StagingPost;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NewsApiArticleCatalogTest {
+
+    private final NewsApiPostHasher postHasher = new NewsApiPostHasher(NewsApiHashMode.FAST);
+
+    private static Article article(int i) {
+        Source source = new Source();
+        source.setId("source-" + i);
+        source.setName("Source " + i);
+        source.setCategory("general");
+        Article article = new Article();
+        article.setSource(source);
+        article.setAuthor("Author " + i);
+        article.setTitle("Title " + i);
+        article.setDescription("Description " + i);
+        article.setUrl("https://news.example.com/story-" + i);
+        article.setPublishedAt("2023-01-01T00:00:00Z");
+        article.setContent("Content " + i);
+        return article;
+    }
+
+    // each call decodes the article again, as a separate response would
+    private static ArticleResponse response(int... articles) {
+        ArticleResponse response = new ArticleResponse();
+        response.setStatus("ok");
+        response.setArticles(Arrays.stream(articles).mapToObj(NewsApiArticleCatalogTest::article).toList());
+        response.setTotalResults(articles.length);
+        return response;
+    }
+
+    private Set<StagingPost> importResponse(NewsApiArticleCatalog catalog, long feedId, ArticleResponse response) {
+        return NewsApiImporter.importArticleResponse(postHasher, catalog, feedId, feedId, "query " + feedId, response, "me", new Date(), null);
+    }
+
+    @Test
+    void testPostsOfSharedArticleHaveTheirOwnObjects() {
+        NewsApiArticleCatalog catalog = new NewsApiArticleCatalog(postHasher, 100L);
+        StagingPost first = importResponse(catalog, 1L, response(1)).iterator().next();
+        StagingPost second = importResponse(catalog, 2L, response(1)).iterator().next();
+
+        assertEquals(1, catalog.getConvertedCount());
+        assertNotEquals(first.getPostHash(), second.getPostHash());
+        assertNotSame(first.getPostTitle(), second.getPostTitle());
+        assertNotSame(first.getPostDesc(), second.getPostDesc());
+        assertNotSame(first.getPostContents().get(0), second.getPostContents().get(0));
+        assertNotSame(first.getAuthors().get(0), second.getAuthors().get(0));
+        assertNotSame(first.getPostCategories(), second.getPostCategories());
+        assertNotSame(first.getPublishTimestamp(), second.getPublishTimestamp());
+        assertEquals(first.getPublishTimestamp(), second.getPublishTimestamp());
+    }
+
+    @Test
+    void testContentLookupIsBounded() {
+        NewsApiArticleCatalog catalog = new NewsApiArticleCatalog(postHasher, 2L);
+        importResponse(catalog, 1L, response(1, 2, 3));
+        assertEquals(3, catalog.getConvertedCount());
+        // the most recent articles are reused, the oldest was evicted
+        importResponse(catalog, 2L, response(2, 3));
+        assertEquals(3, catalog.getConvertedCount());
+        importResponse(catalog, 3L, response(1));
+        assertEquals(4, catalog.getConvertedCount());
+    }
+
+    @Test
+    void testWithoutContentLookupOnlyInstancesAreShared() {
+        NewsApiArticleCatalog catalog = new NewsApiArticleCatalog(postHasher, 0L);
+        ArticleResponse response = response(1, 2);
+        importResponse(catalog, 1L, response);
+        importResponse(catalog, 2L, response);
+        assertEquals(2, catalog.getConvertedCount());
+        List<StagingPost> posts = List.copyOf(importResponse(catalog, 3L, response(1, 2)));
+        assertEquals(2, posts.size());
+        assertEquals(4, catalog.getConvertedCount());
+    }
+}
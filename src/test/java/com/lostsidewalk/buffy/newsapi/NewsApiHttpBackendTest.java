@@ -0,0 +1,337 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import com.google.gson.Gson;
+import com.kwabenaberko.newsapilib.NewsApiClient;
+import com.kwabenaberko.newsapilib.models.Article;
+import com.kwabenaberko.newsapilib.models.response.ArticleResponse;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.GZIPOutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * NewsApiHttpBackend (and NewsApiResponseReader) against an embedded HTTP server standing in for NewsAPI.
+ */
+class NewsApiHttpBackendTest {
+
+    private static final String API_KEY = "test-key";
+
+    private static final int TOTAL_RESULTS = 25;
+
+    private static final Gson GSON = new Gson();
+
+    private HttpServer server;
+
+    private ExecutorService serverExecutor;
+
+    private NewsApiHttpBackend backend;
+
+    // the requests the server received
+    private final List<HttpExchange> exchanges = new CopyOnWriteArrayList<>();
+
+    private interface Responder {
+
+        void respond(HttpExchange exchange) throws IOException;
+    }
+
+    private volatile Responder responder;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/", exchange -> {
+            exchanges.add(exchange);
+            try (exchange) {
+                responder.respond(exchange);
+            }
+        });
+        server.start();
+        backend = new NewsApiHttpBackend(HttpClient.newHttpClient(), "http://localhost:" + server.getAddress().getPort() + "/",
+                API_KEY, Duration.ofMillis(500));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    //
+    // responses
+    //
+
+    private static String articleJson(int i) {
+        return "{\"source\":{\"id\":\"source-" + i + "\",\"name\":\"Source " + i + "\"},\"author\":\"Author " + i + "\","
+                + "\"title\":\"Title " + i + "\",\"description\":\"Description " + i + "\",\"url\":\"https://example.com/" + i + "\","
+                + "\"urlToImage\":null,\"publishedAt\":\"2023-01-01T00:00:00Z\",\"content\":\"Content " + i + "\"}";
+    }
+
+    // the page-th page of TOTAL_RESULTS articles
+    private static String pageJson(int page, int pageSize) {
+        StringJoiner articles = new StringJoiner(",");
+        for (int i = (page - 1) * pageSize; i < Math.min(page * pageSize, TOTAL_RESULTS); i++) {
+            articles.add(articleJson(i));
+        }
+        return "{\"status\":\"ok\",\"totalResults\":" + TOTAL_RESULTS + ",\"articles\":[" + articles + "]}";
+    }
+
+    private static String errorJson(String code) {
+        return "{\"status\":\"error\",\"code\":\"" + code + "\",\"message\":\"Error " + code + "\"}";
+    }
+
+    private static void send(HttpExchange exchange, int statusCode, String body, boolean gzip) throws IOException {
+        byte[] bytes = body.getBytes(UTF_8);
+        if (gzip) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+                out.write(bytes);
+            }
+            bytes = compressed.toByteArray();
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(statusCode, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> queryParams(URI uri) {
+        Map<String, String> params = new HashMap<>();
+        for (String param : uri.getRawQuery().split("&")) {
+            String[] kv = param.split("=", 2);
+            params.put(kv[0], URLDecoder.decode(kv[1], UTF_8));
+        }
+        return params;
+    }
+
+    //
+    // requests
+    //
+
+    private static NewsApiRequest everything(String queryText) {
+        return NewsApiRequest.from(NewsApiImporter.NEWSAPIV2_EVERYTHING, queryText, null);
+    }
+
+    private static NewsApiClient.ArticlesResponseCallback completing(CompletableFuture<ArticleResponse> future) {
+        return new NewsApiClient.ArticlesResponseCallback() {
+            @Override
+            public void onSuccess(ArticleResponse response) {
+                future.complete(response);
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                future.completeExceptionally(throwable);
+            }
+        };
+    }
+
+    private ArticleResponse getArticles(NewsApiRequest request) throws Exception {
+        CompletableFuture<ArticleResponse> future = new CompletableFuture<>();
+        backend.getArticles(request, null, completing(future));
+        return future.get(10, TimeUnit.SECONDS);
+    }
+
+    private Throwable getFailure(NewsApiRequest request) throws Exception {
+        ExecutionException e = assertThrows(ExecutionException.class, () -> getArticles(request));
+        return e.getCause();
+    }
+
+    //
+    // tests
+    //
+
+    @Test
+    void testGzipResponseIsDecoded() throws Exception {
+        responder = exchange -> {
+            boolean gzip = Objects.requireNonNullElse(exchange.getRequestHeaders().getFirst("Accept-Encoding"), "").contains("gzip");
+            send(exchange, 200, pageJson(1, 10), gzip);
+        };
+
+        ArticleResponse response = getArticles(everything("climate"));
+
+        assertEquals("ok", response.getStatus());
+        assertEquals(TOTAL_RESULTS, response.getTotalResults());
+        assertEquals(10, response.getArticles().size());
+        assertEquals("Title 0", response.getArticles().get(0).getTitle());
+        assertEquals("Source 0", response.getArticles().get(0).getSource().getName());
+        HttpExchange exchange = exchanges.get(0);
+        assertEquals(API_KEY, exchange.getRequestHeaders().getFirst("X-Api-Key"));
+        assertEquals("gzip", exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+        assertEquals("/v2/everything", exchange.getRequestURI().getPath());
+        assertEquals("climate", queryParams(exchange.getRequestURI()).get("q"));
+    }
+
+    @Test
+    void testUncompressedResponseIsDecoded() throws Exception {
+        responder = exchange -> send(exchange, 200, pageJson(1, 10), false);
+
+        assertEquals(10, getArticles(everything("climate")).getArticles().size());
+    }
+
+    @Test
+    void testStreamedArticlesArriveInOrderWithCanonicalJson() throws Exception {
+        responder = exchange -> send(exchange, 200, pageJson(1, 10), true);
+        List<Article> articles = new ArrayList<>();
+        List<String> canonicalJson = new ArrayList<>();
+        CompletableFuture<ArticleResponse> future = new CompletableFuture<>();
+
+        backend.streamArticles(everything("climate"), null, (article, json) -> {
+            articles.add(article);
+            canonicalJson.add(json);
+        }, completing(future));
+        ArticleResponse envelope = future.get(10, TimeUnit.SECONDS);
+
+        assertEquals(TOTAL_RESULTS, envelope.getTotalResults());
+        assertTrue(envelope.getArticles().isEmpty());
+        assertEquals(10, articles.size());
+        for (int i = 0; i < articles.size(); i++) {
+            assertEquals("Title " + i, articles.get(i).getTitle());
+            // the form the COMPATIBLE post hash is computed over
+            assertEquals(GSON.toJson(articles.get(i)), canonicalJson.get(i));
+        }
+    }
+
+    @Test
+    void testPagesAreRequestedByNumberAndSize() throws Exception {
+        responder = exchange -> {
+            Map<String, String> params = queryParams(exchange.getRequestURI());
+            send(exchange, 200, pageJson(Integer.parseInt(params.get("page")), Integer.parseInt(params.get("pageSize"))), true);
+        };
+        NewsApiRequest request = everything("climate");
+
+        List<String> titles = new ArrayList<>();
+        for (int page = 1; page <= 3; page++) {
+            getArticles(request.withPage(page, 10)).getArticles().forEach(a -> titles.add(a.getTitle()));
+        }
+
+        assertEquals(TOTAL_RESULTS, titles.size());
+        assertEquals("Title 10", titles.get(10));
+        assertEquals("Title 24", titles.get(24));
+        assertEquals(3, exchanges.size());
+        Map<String, String> lastParams = queryParams(exchanges.get(2).getRequestURI());
+        assertEquals("3", lastParams.get("page"));
+        assertEquals("10", lastParams.get("pageSize"));
+    }
+
+    @Test
+    void testNewsApiErrorBodiesAreClassifiedByCode() throws Exception {
+        Map<String, NewsApiErrorType> expected = new LinkedHashMap<>();
+        expected.put("apiKeyInvalid", NewsApiErrorType.AUTH);
+        expected.put("apiKeyExhausted", NewsApiErrorType.QUOTA_EXHAUSTED);
+        expected.put("rateLimited", NewsApiErrorType.RATE_LIMITED);
+        expected.put("parameterInvalid", NewsApiErrorType.CLIENT);
+        expected.put("unexpectedError", NewsApiErrorType.SERVER);
+        // NewsAPI sends its error codes with these statuses; the code in the body wins
+        Map<String, Integer> statusCodes = Map.of("apiKeyInvalid", 401, "apiKeyExhausted", 429, "rateLimited", 429,
+                "parameterInvalid", 400, "unexpectedError", 500);
+        for (Map.Entry<String, NewsApiErrorType> e : expected.entrySet()) {
+            responder = exchange -> send(exchange, statusCodes.get(e.getKey()), errorJson(e.getKey()), true);
+
+            Throwable failure = getFailure(everything("climate"));
+
+            assertEquals(e.getValue(), NewsApiErrorType.classify(failure), e.getKey());
+        }
+    }
+
+    @Test
+    void testNonNewsApiErrorBodiesAreClassifiedByStatus() throws Exception {
+        Map<Integer, NewsApiErrorType> expected = new LinkedHashMap<>();
+        expected.put(401, NewsApiErrorType.AUTH);
+        expected.put(429, NewsApiErrorType.RATE_LIMITED);
+        expected.put(404, NewsApiErrorType.CLIENT);
+        expected.put(502, NewsApiErrorType.SERVER);
+        expected.put(503, NewsApiErrorType.SERVER);
+        for (Map.Entry<Integer, NewsApiErrorType> e : expected.entrySet()) {
+            // e.g., a proxy's error page
+            responder = exchange -> {
+                exchange.getResponseHeaders().set("Content-Type", "text/html");
+                byte[] body = "<html><body>Error</body></html>".getBytes(UTF_8);
+                exchange.sendResponseHeaders(e.getKey(), body.length);
+                exchange.getResponseBody().write(body);
+            };
+
+            Throwable failure = getFailure(everything("climate"));
+
+            assertEquals(e.getValue(), NewsApiErrorType.classify(failure), "HTTP " + e.getKey());
+        }
+    }
+
+    @Test
+    void testSlowResponseTimesOut() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        responder = exchange -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            send(exchange, 200, pageJson(1, 10), true);
+        };
+        try {
+            Throwable failure = getFailure(everything("climate"));
+
+            assertTrue(failure instanceof HttpTimeoutException, String.valueOf(failure));
+            assertEquals(NewsApiErrorType.TIMEOUT, NewsApiErrorType.classify(failure));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void testStalledBodyTimesOutAtTheDeadline() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        // the headers and the start of the body arrive promptly, then the upstream stalls
+        responder = exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream out = exchange.getResponseBody();
+            out.write(("{\"status\":\"ok\",\"totalResults\":1,\"articles\":[" + articleJson(0) + ",").getBytes(UTF_8));
+            out.flush();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        try {
+            List<String> titles = new CopyOnWriteArrayList<>();
+            CompletableFuture<ArticleResponse> future = new CompletableFuture<>();
+            long startNanos = System.nanoTime();
+
+            backend.streamArticles(everything("climate"), Instant.now().plusMillis(200), (article, json) -> titles.add(article.getTitle()),
+                    completing(future));
+            ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+
+            assertTrue(e.getCause() instanceof HttpTimeoutException, String.valueOf(e.getCause()));
+            assertEquals(NewsApiErrorType.TIMEOUT, NewsApiErrorType.classify(e.getCause()));
+            // the deadline, not the (longer) request timeout
+            assertTrue(System.nanoTime() - startNanos < TimeUnit.MILLISECONDS.toNanos(450));
+            assertEquals(List.of("Title 0"), titles);
+        } finally {
+            release.countDown();
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import com.kwabenaberko.newsapilib.NewsApiClient;
+import com.kwabenaberko.newsapilib.models.response.ArticleResponse;
+import com.lostsidewalk.buffy.Importer.ImportResult;
+import com.lostsidewalk.buffy.post.StagingPost;
+import com.lostsidewalk.buffy.query.QueryDefinition;
+import com.lostsidewalk.buffy.query.QueryMetrics;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static com.lostsidewalk.buffy.newsapi.NewsApiTestFixtures.queryDefinition;
+import static com.lostsidewalk.buffy.newsapi.NewsApiTestFixtures.stagingPost;
+import static java.util.stream.Collectors.toSet;
+import static org.junit.jupiter.api.Assertions.*;
+
+class NewsApiImportRunTest {
+
+    private static final int QUERY_CT = 2_000;
+
+    private static final int WORKER_CT = 8;
+
+    private static final int POSTS_PER_QUERY = 3;
+
+    private static List<QueryDefinition> queryDefinitions() {
+        return LongStream.range(0, QUERY_CT)
+                .mapToObj(id -> queryDefinition(id, NewsApiImporter.NEWSAPIV2_HEADLINES, "query " + id))
+                .toList();
+    }
+
+    // posts are distinct per query and per worker, so the result shows which worker's completion was kept
+    private static Set<StagingPost> posts(QueryDefinition q, int worker) {
+        Set<StagingPost> posts = new HashSet<>();
+        for (int i = 0; i < POSTS_PER_QUERY; i++) {
+            posts.add(stagingPost(q.getId(), q.getId() + "-" + worker + "-" + i));
+        }
+        return posts;
+    }
+
+    private static QueryMetrics metrics(QueryDefinition q, int importCt) {
+        return QueryMetrics.from(q.getId(), new Date(), importCt);
+    }
+
+    // every worker completes every query (in a different order), half with a success and half with a failure
+    private static Map<QueryDefinition, Integer> completeConcurrently(NewsApiImportRun importRun, List<QueryDefinition> queryDefinitions,
+                                                                       Runnable midway) throws Exception {
+        Map<QueryDefinition, Integer> acceptedBy = new ConcurrentHashMap<>();
+        AtomicInteger completedCt = new AtomicInteger();
+        CyclicBarrier start = new CyclicBarrier(WORKER_CT);
+        ExecutorService workers = Executors.newFixedThreadPool(WORKER_CT);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < WORKER_CT; w++) {
+                int worker = w;
+                futures.add(workers.submit(() -> {
+                    List<QueryDefinition> order = new ArrayList<>(queryDefinitions);
+                    Collections.shuffle(order, new Random(worker));
+                    start.await();
+                    for (QueryDefinition q : order) {
+                        if (worker % 2 == 0) {
+                            if (importRun.success(q, posts(q, worker), metrics(q, POSTS_PER_QUERY))) {
+                                assertNull(acceptedBy.put(q, worker), "a query's result was accepted twice");
+                            }
+                        } else {
+                            importRun.failure(q, metrics(q, 0));
+                        }
+                        if (completedCt.incrementAndGet() == QUERY_CT * WORKER_CT / 2) {
+                            midway.run();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+        return acceptedBy;
+    }
+
+    @Test
+    void testImportCompletesEveryQueryOnce() {
+        NewsApiImporterConfigProps configProps = new NewsApiImporterConfigProps();
+        configProps.setMaxConcurrency(WORKER_CT);
+        configProps.setImportTimeoutSecs(60);
+        configProps.setSyntheticArticlesPerResponse(POSTS_PER_QUERY);
+        configProps.setPostHashMode(NewsApiHashMode.FAST);
+        // every request is made once, and a failed request fails its query
+        configProps.setMaxRetries(0);
+        configProps.setCircuitBreakerFailureThreshold(0);
+        NewsApiMockDataGenerator generator = new NewsApiMockDataGenerator();
+        generator.configProps = configProps;
+        NewsApiBackend syntheticBackend = new SyntheticNewsApiBackend(generator, 1L, 0.2);
+        AtomicInteger failedCt = new AtomicInteger();
+        NewsApiImporter importer = new NewsApiImporter();
+        importer.configProps = configProps;
+        importer.errorAggregator = new ConcurrentLinkedQueue<>();
+        importer.newsApiMockDataGenerator = generator;
+        importer.newsApiBackend = (request, deadline, callback) -> syntheticBackend.getArticles(request, deadline, new NewsApiClient.ArticlesResponseCallback() {
+            @Override
+            public void onSuccess(ArticleResponse response) {
+                callback.onSuccess(response);
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                failedCt.incrementAndGet();
+                callback.onFailure(throwable);
+            }
+        });
+        importer.newsApiMetrics = new NewsApiMetrics(null);
+        importer.postConstruct();
+        try {
+            ImportResult importResult = importer.doImport(queryDefinitions(), null);
+
+            assertTrue(failedCt.get() > 0);
+            assertEquals(QUERY_CT, importResult.getQueryMetrics().size());
+            // each successful query contributes its own posts (post hashes are scoped to the query's feed)
+            Set<String> postHashes = importResult.getImportSet().stream().map(StagingPost::getPostHash).collect(toSet());
+            assertEquals((QUERY_CT - failedCt.get()) * POSTS_PER_QUERY, postHashes.size());
+        } finally {
+            importer.preDestroy();
+        }
+    }
+
+    @Test
+    void testConcurrentCompletionFillsEachSlotOnce() throws Exception {
+        List<QueryDefinition> queryDefinitions = queryDefinitions();
+        NewsApiImportRun importRun = new NewsApiImportRun(queryDefinitions, null, new NewsApiArticleCatalog(new NewsApiPostHasher(NewsApiHashMode.FAST), 0L));
+
+        Map<QueryDefinition, Integer> acceptedBy = completeConcurrently(importRun, queryDefinitions, () -> {});
+
+        assertEquals(0L, importRun.getPendingCount());
+        ImportResult importResult = importRun.await(Duration.ofSeconds(1));
+        assertEquals(QUERY_CT, importResult.getQueryMetrics().size());
+        assertEquals(0, importRun.getTimedOutCount());
+        // exactly the posts of the accepted successes, and nothing from the workers that lost the race
+        Set<String> expectedHashes = acceptedBy.entrySet().stream()
+                .flatMap(e -> posts(e.getKey(), e.getValue()).stream())
+                .map(StagingPost::getPostHash)
+                .collect(toSet());
+        assertEquals(expectedHashes, importResult.getImportSet().stream().map(StagingPost::getPostHash).collect(toSet()));
+    }
+
+    @Test
+    void testCloseRacingCompletionReportsEachQueryOnce() throws Exception {
+        List<QueryDefinition> queryDefinitions = queryDefinitions();
+        NewsApiImportRun importRun = new NewsApiImportRun(queryDefinitions, null, new NewsApiArticleCatalog(new NewsApiPostHasher(NewsApiHashMode.FAST), 0L));
+        List<ImportResult> closed = new CopyOnWriteArrayList<>();
+
+        // the deadline fires while the workers are still completing queries
+        Map<QueryDefinition, Integer> acceptedBy = completeConcurrently(importRun, queryDefinitions, () -> closed.add(importRun.close()));
+
+        assertEquals(1, closed.size());
+        ImportResult importResult = closed.get(0);
+        assertEquals(QUERY_CT, importResult.getQueryMetrics().size());
+        Set<String> expectedHashes = acceptedBy.entrySet().stream()
+                .flatMap(e -> posts(e.getKey(), e.getValue()).stream())
+                .map(StagingPost::getPostHash)
+                .collect(toSet());
+        assertEquals(expectedHashes, importResult.getImportSet().stream().map(StagingPost::getPostHash).collect(toSet()));
+        // a completion either made it into the result, or the query was reported as timed out (or failed) instead
+        Set<QueryDefinition> timedOutOrFailed = new HashSet<>(queryDefinitions);
+        timedOutOrFailed.removeAll(acceptedBy.keySet());
+        assertTrue(importRun.getTimedOutCount() <= timedOutOrFailed.size());
+        // nothing completed after the close is accepted
+        QueryDefinition q = queryDefinitions.get(0);
+        assertFalse(importRun.success(q, posts(q, 0), metrics(q, POSTS_PER_QUERY)));
+    }
+
+    @Test
+    void testCloseWhilePublishingReportsQueryAsTimedOut() throws Exception {
+        List<QueryDefinition> queryDefinitions = queryDefinitions().subList(0, 2);
+        // the subscriber never requests anything, so the second batch waits for buffer space until the deadline
+        Flow.Subscriber<List<StagingPost>> stalledSubscriber = new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+            }
+
+            @Override
+            public void onNext(List<StagingPost> item) {
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        };
+        try (NewsApiPostPublisher postPublisher = new NewsApiPostPublisher(stalledSubscriber, 1, Instant.now().plusSeconds(2))) {
+            NewsApiImportRun importRun = new NewsApiImportRun(queryDefinitions, postPublisher, new NewsApiArticleCatalog(new NewsApiPostHasher(NewsApiHashMode.FAST), 0L));
+            QueryDefinition buffered = queryDefinitions.get(0);
+            assertTrue(importRun.success(buffered, posts(buffered, 0), metrics(buffered, POSTS_PER_QUERY)));
+
+            QueryDefinition blocked = queryDefinitions.get(1);
+            CompletableFuture<Boolean> accepted = new CompletableFuture<>();
+            Thread worker = new Thread(() -> accepted.complete(importRun.success(blocked, posts(blocked, 0), metrics(blocked, POSTS_PER_QUERY))));
+            worker.start();
+            // the deadline fires while the worker is still publishing
+            while (worker.getState() != Thread.State.TIMED_WAITING) {
+                Thread.sleep(10L);
+            }
+            ImportResult importResult = importRun.close();
+
+            assertEquals(2, importResult.getQueryMetrics().size());
+            assertEquals(1, importRun.getTimedOutCount());
+            assertFalse(accepted.get(10, TimeUnit.SECONDS));
+            assertEquals(1, importRun.getTimedOutCount());
+        }
+    }
+}
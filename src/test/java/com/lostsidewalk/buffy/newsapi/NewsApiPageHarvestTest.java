@@ -0,0 +1,130 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import com.kwabenaberko.newsapilib.models.Article;
+import com.kwabenaberko.newsapilib.models.response.ArticleResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toSet;
+import static org.junit.jupiter.api.Assertions.*;
+
+class NewsApiPageHarvestTest {
+
+    private static final int PAGE_SIZE = 10;
+
+    private static final int WINDOW = 3;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    private final List<Integer> fetchedPages = new CopyOnWriteArrayList<>();
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private static ArticleResponse page(int first) {
+        ArticleResponse response = new ArticleResponse();
+        response.setStatus("ok");
+        response.setTotalResults(1_000);
+        response.setArticles(IntStream.range(first, first + PAGE_SIZE).mapToObj(i -> {
+            Article article = new Article();
+            article.setTitle("Title " + i);
+            return article;
+        }).toList());
+        return response;
+    }
+
+    private NewsApiPageHarvest.PageFetcher fetcher(NewsApiPageHarvest.PageFetcher delegate) {
+        return p -> {
+            fetchedPages.add(p);
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+                return delegate.fetch(p);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        };
+    }
+
+    private List<String> harvest(int pageCount, NewsApiPageHarvest.PageFetcher pageFetcher, Set<String> known) throws Exception {
+        NewsApiRequest request = NewsApiRequest.from(NewsApiImporter.NEWSAPIV2_EVERYTHING, "climate", null);
+        return new NewsApiPageHarvest(request, pageCount, WINDOW, fetcher(pageFetcher), Article::getTitle, known::contains)
+                .harvest(page(0), executor)
+                .getArticles().stream().map(Article::getTitle).toList();
+    }
+
+    @Test
+    void testPagesAreFetchedAWindowAtATime() throws Exception {
+        // later pages respond sooner, so they complete out of order
+        List<String> titles = harvest(10, p -> {
+            Thread.sleep((10 - p) * 5L);
+            return page((p - 1) * PAGE_SIZE);
+        }, Set.of());
+
+        assertEquals(10 * PAGE_SIZE, titles.size());
+        assertEquals(IntStream.range(0, 10 * PAGE_SIZE).mapToObj(i -> "Title " + i).toList(), titles);
+        assertEquals(IntStream.rangeClosed(2, 10).boxed().collect(toSet()), Set.copyOf(fetchedPages));
+        assertTrue(maxInFlight.get() > 1, "maxInFlight=" + maxInFlight.get());
+        assertTrue(maxInFlight.get() <= WINDOW, "maxInFlight=" + maxInFlight.get());
+    }
+
+    @Test
+    void testPagesAfterAnAllSeenPageAreNotFetched() throws Exception {
+        // page 3 holds only articles imported before
+        Set<String> known = IntStream.range(2 * PAGE_SIZE, 3 * PAGE_SIZE).mapToObj(i -> "Title " + i).collect(toSet());
+
+        List<String> titles = harvest(20, p -> page((p - 1) * PAGE_SIZE), known);
+
+        assertEquals(3 * PAGE_SIZE, titles.size());
+        // at most the rest of the window is fetched past the stop
+        assertTrue(fetchedPages.stream().allMatch(p -> p <= 2 + WINDOW), "fetchedPages=" + fetchedPages);
+    }
+
+    @Test
+    void testFailedPageDeliversThePagesBeforeIt() throws Exception {
+        List<String> titles = harvest(20, p -> {
+            if (p == 3) {
+                throw new IOException("connection reset");
+            }
+            return page((p - 1) * PAGE_SIZE);
+        }, Set.of());
+
+        assertEquals(2 * PAGE_SIZE, titles.size());
+        assertTrue(fetchedPages.stream().allMatch(p -> p <= 2 + WINDOW), "fetchedPages=" + fetchedPages);
+    }
+
+    @Test
+    void testInterruptedHarvestCancelsItsPages() throws Exception {
+        CountDownLatch fetching = new CountDownLatch(WINDOW);
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        Future<List<String>> harvest = caller.submit(() -> harvest(10, p -> {
+            fetching.countDown();
+            Thread.sleep(60_000L);
+            return page((p - 1) * PAGE_SIZE);
+        }, Set.of()));
+        assertTrue(fetching.await(10, TimeUnit.SECONDS));
+
+        harvest.cancel(true);
+        caller.shutdown();
+
+        long deadlineNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (inFlight.get() > 0 && System.nanoTime() < deadlineNanos) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, inFlight.get());
+        assertEquals(WINDOW, fetchedPages.size());
+    }
+}
@@ -0,0 +1,70 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import com.kwabenaberko.newsapilib.models.Article;
+import com.lostsidewalk.buffy.post.StagingPost;
+import org.junit.jupiter.api.Test;
+
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static com.lostsidewalk.buffy.newsapi.NewsApiTestFixtures.stagingPost;
+import static org.junit.jupiter.api.Assertions.*;
+
+class NewsApiPostBatchCodecTest {
+
+    private static List<String> postHashes(List<StagingPost> stagingPosts) {
+        return stagingPosts.stream().map(StagingPost::getPostHash).toList();
+    }
+
+    @Test
+    void testPostHashesRoundTripInEitherCase() throws Exception {
+        List<StagingPost> batch = List.of(
+                stagingPost(1L, "0123456789ABCDEF0123456789ABCDEF"),
+                stagingPost(1L, "0123456789abcdef0123456789abcdef"),
+                stagingPost(1L, "0123456789"),
+                stagingPost(2L, "0123456789abcdefABCDEF"),
+                stagingPost(2L, "not-a-hex-hash"),
+                stagingPost(2L, "ABC"));
+
+        List<StagingPost> decoded = NewsApiPostBatchCodec.decode(NewsApiPostBatchCodec.encode(batch));
+
+        assertEquals(postHashes(batch), postHashes(decoded));
+    }
+
+    @Test
+    void testImporterPostHashesAreStoredAsBytes() throws Exception {
+        NewsApiPostHasher postHasher = new NewsApiPostHasher(NewsApiHashMode.COMPATIBLE);
+        Article article = new Article();
+        article.setTitle("title");
+        article.setUrl("https://example.com/story");
+        String postHash = postHasher.computeHash(1L, article);
+        assertEquals(postHash.toUpperCase(), postHash);
+        ByteBuffer hexEncoded = NewsApiPostBatchCodec.encode(List.of(stagingPost(1L, postHash)));
+        // same length, but not hex
+        ByteBuffer stringEncoded = NewsApiPostBatchCodec.encode(List.of(stagingPost(1L, postHash.substring(1) + "G")));
+
+        assertEquals(stringEncoded.remaining() - postHash.length() / 2, hexEncoded.remaining());
+        assertEquals(List.of(postHash), postHashes(NewsApiPostBatchCodec.decode(hexEncoded)));
+    }
+
+    @Test
+    void testStringsWithUnpairedSurrogatesRoundTrip() throws Exception {
+        // text cut in the middle of an emoji, as truncated upstream content sometimes is
+        String truncated = "Markets rallied \uD83D";
+        List<StagingPost> batch = List.of(stagingPost(1L, truncated), stagingPost(1L, "\uDCC8 and \uD83D\uDCC8"));
+
+        List<StagingPost> decoded = NewsApiPostBatchCodec.decode(NewsApiPostBatchCodec.encode(batch));
+
+        assertEquals(postHashes(batch), postHashes(decoded));
+        assertEquals(batch.get(0).getPostTitle().getValue(), decoded.get(0).getPostTitle().getValue());
+    }
+
+    @Test
+    void testTruncatedBatchIsRejected() {
+        ByteBuffer encoded = NewsApiPostBatchCodec.encode(List.of(stagingPost(1L, "0123456789ABCDEF0123456789ABCDEF")));
+        ByteBuffer truncated = encoded.duplicate().limit(encoded.limit() - 4);
+
+        assertThrows(StreamCorruptedException.class, () -> NewsApiPostBatchCodec.decode(truncated));
+    }
+}
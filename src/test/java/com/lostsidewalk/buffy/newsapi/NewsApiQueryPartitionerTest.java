@@ -0,0 +1,128 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import com.lostsidewalk.buffy.query.QueryDefinition;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+
+import static com.lostsidewalk.buffy.newsapi.NewsApiTestFixtures.queryDefinition;
+import static org.junit.jupiter.api.Assertions.*;
+
+class NewsApiQueryPartitionerTest {
+
+    private static final int QUERY_CT = 3_000;
+
+    // queries share a request in groups of three
+    private static final Function<QueryDefinition, String> PARTITION_KEY = q -> "request-" + q.getId() / 3;
+
+    private static List<QueryDefinition> queryDefinitions() {
+        return LongStream.range(0, QUERY_CT)
+                .mapToObj(id -> queryDefinition(id, NewsApiImporter.NEWSAPIV2_EVERYTHING, "query " + (id / 3)))
+                .toList();
+    }
+
+    private static Map<String, NewsApiQueryPartitioner> join(InMemoryClusterMembership cluster, String... nodeIds) {
+        Map<String, NewsApiQueryPartitioner> partitioners = new LinkedHashMap<>();
+        for (String nodeId : nodeIds) {
+            partitioners.put(nodeId, new NewsApiQueryPartitioner(cluster.join(nodeId)));
+        }
+        return partitioners;
+    }
+
+    // query id -> owning node, checking that every query has exactly one owner
+    private static Map<Long, String> owners(Map<String, NewsApiQueryPartitioner> partitioners, List<QueryDefinition> queryDefinitions) {
+        Map<Long, String> owners = new HashMap<>();
+        partitioners.forEach((nodeId, partitioner) -> partitioner.partition(queryDefinitions, PARTITION_KEY)
+                .forEach(q -> assertNull(owners.put(q.getId(), nodeId), "query " + q.getId() + " has two owners")));
+        assertEquals(queryDefinitions.size(), owners.size());
+        return owners;
+    }
+
+    @Test
+    void testPartitionsAreDisjointCompleteAndStable() {
+        InMemoryClusterMembership cluster = new InMemoryClusterMembership();
+        Map<String, NewsApiQueryPartitioner> partitioners = join(cluster, "node-0", "node-1", "node-2");
+        List<QueryDefinition> queryDefinitions = queryDefinitions();
+
+        Map<Long, String> owners = owners(partitioners, queryDefinitions);
+
+        // the same members always produce the same partitions, whatever the order of the queries
+        List<QueryDefinition> shuffled = new ArrayList<>(queryDefinitions);
+        Collections.shuffle(shuffled, new Random(0));
+        assertEquals(owners, owners(partitioners, shuffled));
+        // and a fresh partitioner (e.g., after a restart) agrees
+        assertEquals(owners, owners(join(new InMemoryClusterMembership(), "node-2", "node-0", "node-1"), queryDefinitions));
+        // each node owns a fair share
+        Map<String, Integer> shares = new HashMap<>();
+        owners.values().forEach(nodeId -> shares.merge(nodeId, 1, Integer::sum));
+        shares.values().forEach(share -> assertTrue(share > QUERY_CT / 3 / 2 && share < QUERY_CT / 3 * 2, shares.toString()));
+    }
+
+    @Test
+    void testQueriesSharingARequestShareAnOwner() {
+        InMemoryClusterMembership cluster = new InMemoryClusterMembership();
+        Map<Long, String> owners = owners(join(cluster, "node-0", "node-1", "node-2"), queryDefinitions());
+
+        for (long id = 0; id < QUERY_CT; id += 3) {
+            assertEquals(owners.get(id), owners.get(id + 1));
+            assertEquals(owners.get(id), owners.get(id + 2));
+        }
+    }
+
+    @Test
+    void testJoiningNodeOnlyTakesQueries() {
+        InMemoryClusterMembership cluster = new InMemoryClusterMembership();
+        Map<String, NewsApiQueryPartitioner> partitioners = join(cluster, "node-0", "node-1", "node-2");
+        List<QueryDefinition> queryDefinitions = queryDefinitions();
+        Map<Long, String> before = owners(partitioners, queryDefinitions);
+
+        partitioners.putAll(join(cluster, "node-3"));
+        Map<Long, String> after = owners(partitioners, queryDefinitions);
+
+        int movedCt = 0;
+        for (Map.Entry<Long, String> e : after.entrySet()) {
+            if (!e.getValue().equals(before.get(e.getKey()))) {
+                assertEquals("node-3", e.getValue(), "query " + e.getKey() + " moved between existing nodes");
+                movedCt++;
+            }
+        }
+        assertTrue(movedCt > 0 && movedCt < QUERY_CT / 2, "movedCt=" + movedCt);
+    }
+
+    @Test
+    void testLeavingNodeOnlyGivesUpItsQueries() {
+        InMemoryClusterMembership cluster = new InMemoryClusterMembership();
+        Map<String, NewsApiQueryPartitioner> partitioners = join(cluster, "node-0", "node-1", "node-2", "node-3");
+        List<QueryDefinition> queryDefinitions = queryDefinitions();
+        Map<Long, String> before = owners(partitioners, queryDefinitions);
+
+        cluster.leave("node-1");
+        NewsApiQueryPartitioner departed = partitioners.remove("node-1");
+        Map<Long, String> after = owners(partitioners, queryDefinitions);
+
+        for (Map.Entry<Long, String> e : before.entrySet()) {
+            if (!e.getValue().equals("node-1")) {
+                assertEquals(e.getValue(), after.get(e.getKey()), "query " + e.getKey() + " moved off a remaining node");
+            }
+        }
+        // a node that has left imports nothing
+        assertTrue(departed.partition(queryDefinitions, PARTITION_KEY).isEmpty());
+    }
+
+    @Test
+    void testRejoiningRestoresPartitions() {
+        InMemoryClusterMembership cluster = new InMemoryClusterMembership();
+        Map<String, NewsApiQueryPartitioner> partitioners = join(cluster, "node-0", "node-1", "node-2");
+        List<QueryDefinition> queryDefinitions = queryDefinitions();
+        Map<Long, String> before = owners(partitioners, queryDefinitions);
+
+        cluster.leave("node-2");
+        partitioners.remove("node-2");
+        owners(partitioners, queryDefinitions);
+        partitioners.putAll(join(cluster, "node-2"));
+
+        assertEquals(before, owners(partitioners, queryDefinitions));
+    }
+}
@@ -0,0 +1,100 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import com.lostsidewalk.buffy.query.QueryDefinition;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.lostsidewalk.buffy.newsapi.NewsApiTestFixtures.queryDefinition;
+import static org.junit.jupiter.api.Assertions.*;
+
+class NewsApiQuerySchedulerTest {
+
+    private static class TestClock extends Clock {
+
+        private Instant now = Instant.parse("2023-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    private final TestClock clock = new TestClock();
+
+    private final NewsApiQueryScheduler scheduler = new NewsApiQueryScheduler(clock, Duration.ofHours(1));
+
+    private static List<String> page(int first, int size) {
+        return IntStream.range(first, first + size).mapToObj(i -> String.format("%032X", i)).toList();
+    }
+
+    @Test
+    void testRepeatedPageDoesNotCountAsYield() {
+        // without high-water marks or the seen index, a quiet query returns the same full page every run
+        QueryDefinition quiet = queryDefinition(1L, NewsApiImporter.NEWSAPIV2_EVERYTHING, "quiet");
+        QueryDefinition busy = queryDefinition(2L, NewsApiImporter.NEWSAPIV2_EVERYTHING, "busy");
+        for (int run = 0; run < 12; run++) {
+            assertTrue(scheduler.isDue(busy));
+            if (scheduler.isDue(quiet)) {
+                scheduler.record(quiet, page(0, 100), false);
+            }
+            scheduler.record(busy, page(run * 10, 100), false);
+            clock.advance(Duration.ofMinutes(10));
+        }
+
+        assertFalse(scheduler.isDue(quiet));
+        assertTrue(scheduler.getPriority(busy) > scheduler.getPriority(quiet));
+    }
+
+    @Test
+    void testNewPostsEndTheDeferral() {
+        QueryDefinition q = queryDefinition(1L, NewsApiImporter.NEWSAPIV2_EVERYTHING, "query");
+        scheduler.record(q, page(0, 20), false);
+        clock.advance(Duration.ofHours(4));
+        scheduler.record(q, page(0, 20), false);
+        clock.advance(Duration.ofMinutes(10));
+        assertFalse(scheduler.isDue(q));
+
+        // an empty run doesn't reset what the query returned last
+        clock.advance(Duration.ofHours(1));
+        scheduler.record(q, List.of(), false);
+        clock.advance(Duration.ofHours(1));
+        scheduler.record(q, page(0, 20), false);
+        clock.advance(Duration.ofMinutes(10));
+        assertFalse(scheduler.isDue(q));
+
+        clock.advance(Duration.ofHours(1));
+        scheduler.record(q, page(1, 20), false);
+        clock.advance(Duration.ofMinutes(1));
+        assertTrue(scheduler.isDue(q));
+    }
+
+    @Test
+    void testFailedRunsAreNotDeferred() {
+        QueryDefinition q = queryDefinition(1L, NewsApiImporter.NEWSAPIV2_EVERYTHING, "query");
+        scheduler.record(q, List.of(), true);
+
+        assertTrue(scheduler.isDue(q));
+        assertEquals(0.0, scheduler.getPriority(q));
+    }
+}
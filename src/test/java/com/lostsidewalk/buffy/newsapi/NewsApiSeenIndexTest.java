@@ -0,0 +1,101 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NewsApiSeenIndexTest {
+
+    private static final int RETAIN_GENERATIONS = 3;
+
+    @TempDir
+    Path tempDir;
+
+    private static String postHash(int i) {
+        return String.format("%032X", i);
+    }
+
+    @Test
+    void testLookupKeepsRecurringArticleLive() throws Exception {
+        try (NewsApiSeenIndex seenIndex = new NewsApiSeenIndex(tempDir.resolve("seen.idx"), 1 << 8, RETAIN_GENERATIONS)) {
+            seenIndex.add(postHash(1));
+            seenIndex.add(postHash(2));
+            // the first article turns up in every import, and is skipped rather than added again
+            for (int i = 0; i < RETAIN_GENERATIONS * 2; i++) {
+                seenIndex.advanceGeneration();
+                assertTrue(seenIndex.contains(postHash(1)), "recurring article expired");
+            }
+            assertFalse(seenIndex.contains(postHash(2)));
+        }
+    }
+
+    @Test
+    void testFullIndexRejectsInsertsUntilNextGeneration() throws Exception {
+        int capacity = 1 << 8;
+        try (NewsApiSeenIndex seenIndex = new NewsApiSeenIndex(tempDir.resolve("seen.idx"), capacity, RETAIN_GENERATIONS)) {
+            int maxSize = capacity * 3 / 4;
+            for (int i = 0; i < capacity; i++) {
+                seenIndex.add(postHash(i));
+            }
+            assertEquals(maxSize, seenIndex.size());
+            assertTrue(seenIndex.contains(postHash(0)));
+            assertFalse(seenIndex.contains(postHash(maxSize)));
+            // once the entries expire, the next generation makes room again
+            for (int i = 0; i < RETAIN_GENERATIONS; i++) {
+                seenIndex.advanceGeneration();
+            }
+            seenIndex.add(postHash(maxSize));
+            assertTrue(seenIndex.contains(postHash(maxSize)));
+            assertFalse(seenIndex.contains(postHash(0)));
+        }
+    }
+
+    @Test
+    void testReopenKeepsEntries() throws Exception {
+        Path file = tempDir.resolve("seen.idx");
+        try (NewsApiSeenIndex seenIndex = new NewsApiSeenIndex(file, 1 << 8, RETAIN_GENERATIONS)) {
+            seenIndex.add(postHash(1));
+            seenIndex.advanceGeneration();
+        }
+        try (NewsApiSeenIndex seenIndex = new NewsApiSeenIndex(file, 1 << 8, RETAIN_GENERATIONS)) {
+            assertEquals(1, seenIndex.size());
+            assertTrue(seenIndex.contains(postHash(1)));
+            assertFalse(seenIndex.contains(postHash(2)));
+        }
+    }
+
+    @Test
+    void testConcurrentLookupsAndInsertsAgree() throws Exception {
+        int workers = 8;
+        int perWorker = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try (NewsApiSeenIndex seenIndex = new NewsApiSeenIndex(tempDir.resolve("seen.idx"), 1 << 14, RETAIN_GENERATIONS)) {
+            for (int i = 0; i < perWorker; i++) {
+                seenIndex.add(postHash(i));
+            }
+            // every worker looks up the shared entries, and adds entries of its own
+            List<Future<?>> futures = IntStream.range(0, workers).<Future<?>>mapToObj(w -> executor.submit(() -> {
+                for (int i = 0; i < perWorker; i++) {
+                    assertTrue(seenIndex.contains(postHash(i)));
+                    String own = postHash((w + 1) * perWorker + i);
+                    assertFalse(seenIndex.contains(own));
+                    seenIndex.add(own);
+                    assertTrue(seenIndex.contains(own));
+                }
+                return null;
+            })).toList();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+            assertEquals((workers + 1) * perWorker, seenIndex.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
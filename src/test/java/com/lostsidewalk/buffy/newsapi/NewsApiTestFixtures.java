@@ -0,0 +1,60 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.lostsidewalk.buffy.post.ContentObject;
+import com.lostsidewalk.buffy.post.StagingPost;
+import com.lostsidewalk.buffy.query.QueryDefinition;
+
+import java.util.Date;
+
+/**
+ * Query definitions and staging posts for tests.
+ */
+final class NewsApiTestFixtures {
+
+    private static final Gson GSON = new Gson();
+
+    private NewsApiTestFixtures() {
+    }
+
+    // QueryDefinition is a persistence bean; populate it the way it's read back, as the benchmark fixtures do
+    static QueryDefinition queryDefinition(long id, String queryType, String queryText) {
+        JsonObject obj = new JsonObject();
+        obj.addProperty("id", id);
+        obj.addProperty("feedId", id);
+        obj.addProperty("username", "me");
+        obj.addProperty("queryType", queryType);
+        obj.addProperty("queryText", queryText);
+        return GSON.fromJson(obj, QueryDefinition.class);
+    }
+
+    static StagingPost stagingPost(long queryId, String postHash) {
+        return StagingPost.from(
+                "NewsApiV2", // importer Id
+                queryId, // feed Id
+                "test", // importer desc
+                queryId,
+                ContentObject.from("text", "title " + postHash), // post title
+                null, // post description
+                null, // post_contents
+                null, // post_media
+                null, // post_itunes
+                "https://example.com/" + postHash, // post url
+                null, // post urls
+                null, // post img url
+                new Date(), // import timestamp
+                postHash, // post hash
+                "me", // post username
+                null, // post comment
+                null, // post rights
+                null, // contributors
+                null, // authors
+                null, // post categories
+                null, // publish timestamp
+                null, // expiration timestamp
+                null, // enclosures
+                null // last updated timestamp
+        );
+    }
+}
@@ -0,0 +1,80 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.kwabenaberko.newsapilib.NewsApiClient;
+import com.kwabenaberko.newsapilib.models.response.ArticleResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("UnstableApiUsage")
+class RateLimitedNewsApiBackendTest {
+
+    private final AtomicInteger sentCt = new AtomicInteger();
+
+    private final NewsApiBackend upstream = (request, deadline, callback) -> {
+        sentCt.incrementAndGet();
+        ArticleResponse response = new ArticleResponse();
+        response.setStatus("ok");
+        response.setArticles(List.of());
+        callback.onSuccess(response);
+    };
+
+    private static final NewsApiRequest REQUEST = NewsApiRequest.from(NewsApiImporter.NEWSAPIV2_EVERYTHING, "climate", null);
+
+    private static CompletableFuture<ArticleResponse> getArticles(NewsApiBackend backend, Instant deadline) {
+        CompletableFuture<ArticleResponse> future = new CompletableFuture<>();
+        backend.getArticles(REQUEST, deadline, new NewsApiClient.ArticlesResponseCallback() {
+            @Override
+            public void onSuccess(ArticleResponse response) {
+                future.complete(response);
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                future.completeExceptionally(throwable);
+            }
+        });
+        return future;
+    }
+
+    @Test
+    void testRequestThatCannotBeAdmittedBeforeTheDeadlineSpendsNoBudget() throws Exception {
+        NewsApiQuotaBudget quotaBudget = new NewsApiQuotaBudget(10L, Clock.systemUTC());
+        // one permit every ten seconds
+        NewsApiBackend backend = new RateLimitedNewsApiBackend(upstream, RateLimiter.create(0.1), quotaBudget, new NewsApiMetrics(null));
+        getArticles(backend, Instant.now().plusSeconds(60)).get(1, TimeUnit.SECONDS);
+
+        long startNanos = System.nanoTime();
+        CompletableFuture<ArticleResponse> shed = getArticles(backend, Instant.now().plusMillis(200));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> shed.get(1, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof TimeoutException, String.valueOf(e.getCause()));
+        // failed without waiting out the deadline, let alone the permit
+        assertTrue(System.nanoTime() - startNanos < TimeUnit.SECONDS.toNanos(1));
+        assertEquals(1, sentCt.get());
+        assertEquals(9L, quotaBudget.getRemaining());
+    }
+
+    @Test
+    void testExhaustedBudgetIsReportedAsQuotaExhausted() throws Exception {
+        NewsApiQuotaBudget quotaBudget = new NewsApiQuotaBudget(1L, Clock.systemUTC());
+        NewsApiBackend backend = new RateLimitedNewsApiBackend(upstream, RateLimiter.create(100.0), quotaBudget, new NewsApiMetrics(null));
+        getArticles(backend, Instant.now().plusSeconds(60)).get(1, TimeUnit.SECONDS);
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> getArticles(backend, Instant.now().plusSeconds(60)).get(1, TimeUnit.SECONDS));
+
+        assertEquals(NewsApiErrorType.QUOTA_EXHAUSTED, NewsApiErrorType.classify(e.getCause()));
+        assertEquals(1, sentCt.get());
+    }
+}
@@ -0,0 +1,86 @@
+package com.lostsidewalk.buffy.newsapi;
+
+import com.kwabenaberko.newsapilib.NewsApiClient;
+import com.kwabenaberko.newsapilib.models.Article;
+import com.kwabenaberko.newsapilib.models.response.ArticleResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimedNewsApiBackendTest {
+
+    private static final long UPSTREAM_MILLIS = 50L;
+
+    private static final long CONSUMER_MILLIS = 300L;
+
+    private final List<Long> roundTrips = new CopyOnWriteArrayList<>();
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // responds after UPSTREAM_MILLIS with three articles, decoded one at a time
+    private final NewsApiBackend upstream = new NewsApiBackend() {
+        @Override
+        public void getArticles(NewsApiRequest request, Instant deadline, NewsApiClient.ArticlesResponseCallback callback) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void streamArticles(NewsApiRequest request, Instant deadline, NewsApiArticleStream articleStream,
+                                   NewsApiClient.ArticlesResponseCallback callback) {
+            sleep(UPSTREAM_MILLIS);
+            articleStream.onResponse();
+            for (int i = 0; i < 3; i++) {
+                Article article = new Article();
+                article.setTitle("Title " + i);
+                articleStream.onArticle(article, null);
+            }
+            ArticleResponse envelope = new ArticleResponse();
+            envelope.setStatus("ok");
+            envelope.setArticles(List.of());
+            callback.onSuccess(envelope);
+        }
+    };
+
+    @Test
+    void testStreamedRoundTripExcludesArticleConsumption() throws Exception {
+        NewsApiMetrics metrics = new NewsApiMetrics(null);
+        metrics.setUpstreamListener(roundTrips::add);
+        NewsApiBackend backend = new TimedNewsApiBackend(upstream, metrics);
+        CompletableFuture<ArticleResponse> envelope = new CompletableFuture<>();
+        List<String> titles = new CopyOnWriteArrayList<>();
+
+        // a slow consumer, e.g. converting and publishing each article
+        backend.streamArticles(NewsApiRequest.from(NewsApiImporter.NEWSAPIV2_EVERYTHING, "climate", null), null, (article, canonicalJson) -> {
+            sleep(CONSUMER_MILLIS / 3);
+            titles.add(article.getTitle());
+        }, new NewsApiClient.ArticlesResponseCallback() {
+            @Override
+            public void onSuccess(ArticleResponse response) {
+                envelope.complete(response);
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                envelope.completeExceptionally(throwable);
+            }
+        });
+        envelope.get(10, TimeUnit.SECONDS);
+
+        assertEquals(3, titles.size());
+        assertEquals(1, roundTrips.size());
+        long roundTripMillis = TimeUnit.NANOSECONDS.toMillis(roundTrips.get(0));
+        assertTrue(roundTripMillis >= UPSTREAM_MILLIS && roundTripMillis < CONSUMER_MILLIS, "roundTripMillis=" + roundTripMillis);
+    }
+}